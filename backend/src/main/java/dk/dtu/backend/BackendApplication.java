@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication(exclude = {
     SecurityAutoConfiguration.class,
@@ -11,8 +12,14 @@ import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServic
 })
 public class BackendApplication {
 
+	// Enough for every startup step of this application; later steps are dropped, not blocked
+	private static final int STARTUP_STEPS = 8192;
+
 	public static void main(String[] args) {
-		SpringApplication.run(BackendApplication.class, args);
+		SpringApplication application = new SpringApplication(BackendApplication.class);
+		// Phase and bean timings for /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 }
@@ -4,44 +4,64 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
 
-import javax.annotation.PostConstruct;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import com.google.firebase.auth.FirebaseAuth;
 
 import dk.dtu.backend.service.LoggingService;
 
+/**
+ * Firebase is initialized on the first Google login instead of at startup: reading the service account
+ * and building the Google credentials is a noticeable part of a cold start, and most instances never need it.
+ */
 @Configuration
 public class FirebaseConfig {
 
     @Autowired
     private LoggingService loggingService;
 
-    @PostConstruct
-    public void initialize() {
+    private volatile FirebaseAuth auth;
+
+    public FirebaseAuth getAuth() {
+        FirebaseAuth initialized = auth;
+        if (initialized == null) {
+            synchronized (this) {
+                initialized = auth;
+                if (initialized == null) {
+                    initialized = FirebaseAuth.getInstance(initialize());
+                    auth = initialized;
+                }
+            }
+        }
+        return initialized;
+    }
+
+    private FirebaseApp initialize() {
+        if (!FirebaseApp.getApps().isEmpty()) {
+            return FirebaseApp.getInstance();
+        }
+
         try (InputStream serviceAccount = getClass().getResourceAsStream("/firebase-service.json")) {
             if (serviceAccount == null) {
                 loggingService.error("Firebase service account file not found in resources!", Map.of());
-                throw new RuntimeException("Firebase service account file not found in resources!");
+                throw new IllegalStateException("Firebase service account file not found in resources!");
             }
 
             FirebaseOptions options = FirebaseOptions.builder()
                     .setCredentials(GoogleCredentials.fromStream(serviceAccount))
                     .build();
 
-            if (FirebaseApp.getApps().isEmpty()) {
-                FirebaseApp.initializeApp(options);
-            }
-
+            FirebaseApp app = FirebaseApp.initializeApp(options);
             loggingService.info("Firebase initialized successfully", Map.of());
+            return app;
 
         } catch (IOException e) {
             loggingService.info(e.getMessage(), Map.of());
-            throw new RuntimeException("Failed to initialize Firebase", e);
+            throw new IllegalStateException("Failed to initialize Firebase", e);
         }
     }
 }
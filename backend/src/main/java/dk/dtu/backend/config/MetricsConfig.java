@@ -1,10 +1,23 @@
 package dk.dtu.backend.config;
 
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import dk.dtu.backend.utils.CountingAsyncAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.prometheus.metrics.tracer.common.SpanContext;
 
 @Configuration
 public class MetricsConfig {
@@ -16,4 +29,64 @@ public class MetricsConfig {
             "environment", "development"
         );
     }
-}
\ No newline at end of file
+
+    // Log events shed by the non-blocking async appenders in logback-spring.xml
+    @Bean
+    public MeterBinder droppedLogEventsMetric() {
+        return registry -> FunctionCounter
+            .builder("logging.events.dropped", CountingAsyncAppender.class, appender -> CountingAsyncAppender.droppedEvents())
+            .description("Log events dropped because the async log queue was full")
+            .register(registry);
+    }
+
+    // Per-request ids must never become tags, whichever code path registers the meter
+    @Bean
+    public MeterFilter denyRequestScopedTags() {
+        return MeterFilter.ignoreTags("correlationId", "userEmail");
+    }
+
+    // Full latency buckets only on the hot routes. The other routes get three coarse buckets instead of none:
+    // Prometheus rejects a metric whose series mix histograms and summaries
+    @Bean
+    public MeterFilter requestHistogramsOnHotRoutes(@Value("${app.metrics.histogram-routes}") Set<String> routes) {
+        DistributionStatisticConfig full = DistributionStatisticConfig.builder().percentilesHistogram(true).build();
+        DistributionStatisticConfig coarse = DistributionStatisticConfig.builder()
+            .serviceLevelObjectives(Stream.of(Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(2))
+                .mapToDouble(Duration::toNanos).toArray())
+            .build();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!"http.request.duration".equals(id.getName())) {
+                    return config;
+                }
+                return (routes.contains(id.getTag("route")) ? full : coarse).merge(config);
+            }
+        };
+    }
+
+    // Attaches the request's correlationId to histogram buckets as an exemplar instead of a tag
+    @Bean
+    public SpanContext correlationIdExemplars() {
+        return new SpanContext() {
+            @Override
+            public String getCurrentTraceId() {
+                return MDC.get("correlationId");
+            }
+
+            @Override
+            public String getCurrentSpanId() {
+                return MDC.get("correlationId");
+            }
+
+            @Override
+            public boolean isCurrentSpanSampled() {
+                return MDC.get("correlationId") != null;
+            }
+
+            @Override
+            public void markCurrentSpanAsExemplar() {
+            }
+        };
+    }
+}
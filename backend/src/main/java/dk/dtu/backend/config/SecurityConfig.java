@@ -52,6 +52,11 @@ public class SecurityConfig {
                 // Checkout public endpoints
                 .requestMatchers(
                     "/api/products/available",
+                    "/api/products/catalog",
+                    "/api/products/stream",
+                    "/api/products/changes",
+                    "/api/products/search",
+                    "/api/products/search/suggest",
                     "/api/checkout/placebid",
                     "/api/checkout/placeorder"
                 ).permitAll() 
@@ -62,7 +67,8 @@ public class SecurityConfig {
                     "/swagger-ui/**",
                     "/v3/api-docs/**"
                 ).permitAll()
-                // Actuator / Prometheus
+                // Actuator / Prometheus; the startup timeline is never public, even when exposed
+                .requestMatchers("/actuator/startup").authenticated()
                 .requestMatchers(
                     "/actuator/**",
                     "/actuator/prometheus"
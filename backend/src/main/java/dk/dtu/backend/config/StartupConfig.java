@@ -0,0 +1,39 @@
+package dk.dtu.backend.config;
+
+import java.util.Set;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.RestController;
+
+import dk.dtu.backend.service.BidEngine;
+import dk.dtu.backend.service.CheckoutIdempotencyStore;
+import dk.dtu.backend.service.PasswordHashingService;
+import dk.dtu.backend.service.ProductCatalogCache;
+import dk.dtu.backend.service.ProductEventStream;
+import dk.dtu.backend.service.ProductSearchIndex;
+import dk.dtu.backend.service.UserPrincipalCache;
+
+@Configuration
+public class StartupConfig {
+
+    // Request-path components stay eager under spring.main.lazy-initialization (faststart profile),
+    // so the first requests after a scale-out do not pay for creating them
+    private static final Set<Class<?>> HOT_PATH = Set.of(
+            BidEngine.class,
+            ProductCatalogCache.class,
+            ProductSearchIndex.class,
+            ProductEventStream.class,
+            PasswordHashingService.class,
+            UserPrincipalCache.class,
+            CheckoutIdempotencyStore.class
+    );
+
+    // Static: consulted by a bean factory post-processor, before regular beans exist
+    @Bean
+    public static LazyInitializationExcludeFilter eagerHotPathBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType.isAnnotationPresent(RestController.class) || HOT_PATH.contains(beanType);
+    }
+}
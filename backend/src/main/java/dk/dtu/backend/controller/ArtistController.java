@@ -1,5 +1,6 @@
 package dk.dtu.backend.controller;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,22 +38,18 @@ public class ArtistController {
     @GetMapping
     public ResponseEntity<List<ArtistDTO>> getAllArtists(HttpServletRequest httpRequest) {
 
-        String correlationId = (String) httpRequest.getAttribute("correlationId"); 
-
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         List<Artist> artists = artistService.getAllArtists();
 
         // Map Product entities to ProductDTO
         List<ArtistDTO> artistDTOs = DtoMapper.toArtistDTOList(artists);
 
-        long duration = System.currentTimeMillis() - startTime;
+        Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
         metricService.incrementCounter("artists.all.fetch", 
-        "success", "true",
-            "correlationId", correlationId);
+        "success", "true");
         metricService.recordDuration("artists.all.duration", duration, 
-        "success", "true",
-            "correlationId", correlationId);
+        "success", "true");
 
         return ResponseEntity.ok(artistDTOs);
     }
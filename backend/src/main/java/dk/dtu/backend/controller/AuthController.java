@@ -1,5 +1,6 @@
 package dk.dtu.backend.controller;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,11 +24,16 @@ import dk.dtu.backend.persistence.entity.Address;
 import dk.dtu.backend.persistence.entity.Artist;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.service.AddressService;
+import dk.dtu.backend.service.AuthMetrics;
+import dk.dtu.backend.service.AuthMetrics.LoginFailure;
+import dk.dtu.backend.service.AuthMetrics.RegisterFailure;
 import dk.dtu.backend.service.AuthService;
 import dk.dtu.backend.service.MetricService;
+import dk.dtu.backend.service.PasswordHashingBusyException;
 import dk.dtu.backend.utils.CookieUtil;
 import dk.dtu.backend.utils.DtoMapper;
 import dk.dtu.backend.utils.JwtUtil;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
@@ -43,13 +49,14 @@ public class AuthController {
     @Autowired
     private MetricService metricService;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
     // ----------------------------REGISTER------------------------------
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
 
-        String correlationId = (String) httpRequest.getAttribute("correlationId"); // For business
-
-        long startTime = System.currentTimeMillis();
+        Timer.Sample sample = authMetrics.start();
 
         User user = request.getUser();
         user.setAccountType(user.getAccountType().toUpperCase());
@@ -58,14 +65,8 @@ public class AuthController {
 
         // Basic validation
         if (user.getEmail() == null || !isValidEmail(user.getEmail())) {
-            metricService.incrementCounter("auth.register", 
-            "success", "false",
-             "reason", "invalid_email",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.register.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
-            
+            authMetrics.registerFailed(RegisterFailure.INVALID_EMAIL, sample);
+
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "error", "Invalid email format"
@@ -73,14 +74,8 @@ public class AuthController {
         }
         if (user.getPassword() == null || user.getPassword().length() < 8) {
 
-            metricService.incrementCounter("auth.register", 
-            "success", "false",
-             "reason", "invalid_password",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.register.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
-            
+            authMetrics.registerFailed(RegisterFailure.INVALID_PASSWORD, sample);
+
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "error", "Password must be at least 8 characters"
@@ -91,13 +86,7 @@ public class AuthController {
         if(user.getAccountType().equals("ARTIST")){
             if (artist == null){
 
-                metricService.incrementCounter("auth.register", 
-                "success", "false", 
-                "reason", "missing_artist",
-                "correlationId", correlationId);
-                metricService.recordDuration("auth.register.duration", System.currentTimeMillis() - startTime, 
-                "success", "false",
-                "correlationId", correlationId);
+                authMetrics.registerFailed(RegisterFailure.MISSING_ARTIST, sample);
 
                 return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -110,13 +99,7 @@ public class AuthController {
         else if(user.getAccountType().equals( "CUSTOMER")){
             if (address == null) {
 
-                metricService.incrementCounter("auth.register", 
-                "success", "false",
-                 "reason", "missing_address",
-                "correlationId", correlationId);
-                metricService.recordDuration("auth.register.duration", System.currentTimeMillis() - startTime, 
-                "success", "false",
-                "correlationId", correlationId);
+                authMetrics.registerFailed(RegisterFailure.MISSING_ADDRESS, sample);
 
                 return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -128,30 +111,28 @@ public class AuthController {
         }
 
         // Save user (service handles logging internally)
-        boolean success = authService.register(user);
+        boolean success;
+        try {
+            success = authService.register(user);
+        } catch (PasswordHashingBusyException e) {
+            authMetrics.registerFailed(RegisterFailure.HASHING_BUSY, sample);
+
+            return ResponseEntity.status(503).body(Map.of(
+                    "success", false,
+                    "error", "Too many sign-ins right now, please retry shortly"
+            ));
+        }
         if (!success) {
             
-            metricService.incrementCounter("auth.register", 
-            "success", "false", 
-            "reason", "duplicate_or_db_error",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.register.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
-            
+            authMetrics.registerFailed(RegisterFailure.DUPLICATE_OR_DB_ERROR, sample);
+
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "error", "Email already registered or DB error"
             ));
         }
 
-        long duration = System.currentTimeMillis() - startTime;
-        metricService.incrementCounter("auth.register", 
-        "success", "true",
-            "correlationId", correlationId);
-        metricService.recordDuration("auth.register.duration", duration, 
-        "success", "true",
-            "correlationId", correlationId);
+        authMetrics.registered(sample);
 
         return ResponseEntity.ok()
                 //.header(HttpHeaders.SET_COOKIE, cookie.toString())
@@ -167,20 +148,16 @@ public class AuthController {
     @PreAuthorize("isAuthenticated() and hasRole('CUSTOMER')")
     public ResponseEntity<?> getMyAddress(HttpServletRequest httpRequest) {
 
-        String correlationId = (String) httpRequest.getAttribute("correlationId"); // For business
-
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         User user = authService.getAuthenticatedUser();
         
         if (user == null) {
             metricService.incrementCounter("auth.address.fetch", 
             "success", "false", 
-            "reason", "invalid_token",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.address.fetch.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
+            "reason", "invalid_token");
+            metricService.recordDuration("auth.address.fetch.duration", Duration.ofNanos(System.nanoTime() - startTime), 
+            "success", "false");
             
             return ResponseEntity.status(402).body("Invalid token");
         }
@@ -192,22 +169,18 @@ public class AuthController {
         if(addressOpt.isEmpty()){
             metricService.incrementCounter("auth.address.fetch", 
             "success", "false",
-             "reason", "no_address",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.address.fetch.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
+             "reason", "no_address");
+            metricService.recordDuration("auth.address.fetch.duration", Duration.ofNanos(System.nanoTime() - startTime), 
+            "success", "false");
 
             return ResponseEntity.status(403).body("No address found");
         }
 
-        long duration = System.currentTimeMillis() - startTime;
+        Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
         metricService.incrementCounter("auth.address.fetch", 
-        "success", "true",
-            "correlationId", correlationId);
+        "success", "true");
         metricService.recordDuration("auth.address.fetch.duration", duration, 
-        "success", "true",
-            "correlationId", correlationId);
+        "success", "true");
 
         // Map to DTO and return
         AddressDTO addressDTO = DtoMapper.toAddressDTO(addressOpt.get());
@@ -219,21 +192,13 @@ public class AuthController {
     public ResponseEntity<?> login(@RequestBody Map<String, String> credentials, 
                                                     HttpServletRequest httpRequest) {
         
-        String correlationId = (String) httpRequest.getAttribute("correlationId"); // For business
-
-        long startTime = System.currentTimeMillis();
+        Timer.Sample sample = authMetrics.start();
 
         String email = credentials.get("email");
         String password = credentials.get("password");
 
         if (email == null || password == null || email.isEmpty() || password.isEmpty()) {
-            metricService.incrementCounter("auth.login", 
-            "success", "false",
-            "reason", "missing_credentials",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.login.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
+            authMetrics.loginFailed(LoginFailure.MISSING_CREDENTIALS, sample);
 
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -241,15 +206,19 @@ public class AuthController {
             ));
         }
 
-        Optional<String> tokenOpt = authService.login(email, password);
+        Optional<String> tokenOpt;
+        try {
+            tokenOpt = authService.login(email, password);
+        } catch (PasswordHashingBusyException e) {
+            authMetrics.loginFailed(LoginFailure.HASHING_BUSY, sample);
+
+            return ResponseEntity.status(503).body(Map.of(
+                    "success", false,
+                    "error", "Too many sign-ins right now, please retry shortly"
+            ));
+        }
         if (tokenOpt.isEmpty()) {
-            metricService.incrementCounter("auth.login", 
-            "success", "false", 
-            "reason", "invalid_credentials",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.login.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
+            authMetrics.loginFailed(LoginFailure.INVALID_CREDENTIALS, sample);
 
             return ResponseEntity.status(401).body(Map.of(
                     "success", false,
@@ -257,13 +226,7 @@ public class AuthController {
             ));
         }
 
-        long duration = System.currentTimeMillis() - startTime;
-        metricService.incrementCounter("auth.login", 
-        "success", "true",
-            "correlationId", correlationId);
-        metricService.recordDuration("auth.login.duration", duration, 
-        "success", "true",
-            "correlationId", correlationId);
+        authMetrics.loggedIn(sample);
 
         ResponseCookie cookie = CookieUtil.createJwtCookie(tokenOpt.get());
         return ResponseEntity.ok()
@@ -278,20 +241,17 @@ public class AuthController {
     // -----------------------------FIREBASE LOGIN-----------------------------
     @PostMapping("/login/firebase")
     public ResponseEntity<?> loginWithFirebase(@RequestBody LoginRequestFirebase request, HttpServletRequest httpRequest) {
-        String correlationId = (String) httpRequest.getAttribute("correlationId"); // For business
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         String idToken = request.getToken();
 
         if (idToken == null || idToken.isBlank()) {
             metricService.incrementCounter("auth.login.firebase", 
             "success", "false", 
-            "reason", "missing_token",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.login.firebase.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
+            "reason", "missing_token");
+            metricService.recordDuration("auth.login.firebase.duration", Duration.ofNanos(System.nanoTime() - startTime), 
+            "success", "false");
 
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -303,11 +263,9 @@ public class AuthController {
         if (tokenOpt.isEmpty()) {
             metricService.incrementCounter("auth.login.firebase", 
             "success", "false", 
-            "reason", "invalid_token",
-            "correlationId", correlationId);
-            metricService.recordDuration("auth.login.firebase.duration", System.currentTimeMillis() - startTime,
-             "success", "false",
-             "correlationId", correlationId);
+            "reason", "invalid_token");
+            metricService.recordDuration("auth.login.firebase.duration", Duration.ofNanos(System.nanoTime() - startTime),
+             "success", "false");
 
             return ResponseEntity.status(401).body(Map.of(
                     "success", false,
@@ -315,13 +273,11 @@ public class AuthController {
             ));
         }
 
-        long duration = System.currentTimeMillis() - startTime;
+        Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
         metricService.incrementCounter("auth.login.firebase", 
-        "success", "true",
-        "correlationId", correlationId);
+        "success", "true");
         metricService.recordDuration("auth.login.firebase.duration", duration, 
-        "success", "true",
-        "correlationId", correlationId);
+        "success", "true");
 
         ResponseCookie cookie = CookieUtil.createJwtCookie(tokenOpt.get());
         return ResponseEntity.ok()
@@ -336,11 +292,9 @@ public class AuthController {
     // -----------------------------LOGOUT-----------------------------
     @GetMapping("/logout")
     public ResponseEntity<?> logout(HttpServletRequest httpRequest) {
-        String correlationId = (String) httpRequest.getAttribute("correlationId"); 
 
         metricService.incrementCounter("auth.logout", 
-        "success", "true",
-        "correlationId", correlationId);
+        "success", "true");
 
         ResponseCookie cookie = CookieUtil.clearJwtCookie();
         return ResponseEntity.ok()
@@ -11,12 +11,18 @@ import org.springframework.web.bind.annotation.RestController;
 
 import dk.dtu.backend.dto.CheckoutRequest;
 import dk.dtu.backend.persistence.entity.Order;
-import dk.dtu.backend.persistence.entity.Product;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.service.AuthService;
-import dk.dtu.backend.service.MetricService;
+import dk.dtu.backend.service.BidEngine;
+import dk.dtu.backend.service.CheckoutMetrics;
+import dk.dtu.backend.service.CheckoutMetrics.BidFailure;
+import dk.dtu.backend.service.CheckoutMetrics.OrderFailure;
 import dk.dtu.backend.service.OrderService;
+import dk.dtu.backend.service.PaymentIntentConflictException;
+import dk.dtu.backend.service.PaymentUnavailableException;
+import dk.dtu.backend.service.ProductAlreadySoldException;
 import dk.dtu.backend.service.ProductService;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
@@ -33,15 +39,13 @@ public class CheckoutController {
     private AuthService authService;
 
     @Autowired
-    private MetricService metricService;
+    private CheckoutMetrics checkoutMetrics;
 
     // ----------------------------- Place bid -----------------------------
     @PostMapping("/placebid")
     public ResponseEntity<?> placeBid(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
         
-        String correlationId = (String) httpRequest.getAttribute("correlationId");
-
-        long startTime = System.currentTimeMillis();
+        Timer.Sample sample = checkoutMetrics.start();
 
         Integer productId;
         double bidAmount;
@@ -50,70 +54,37 @@ public class CheckoutController {
             productId = Integer.parseInt(request.get("productId").toString());
             bidAmount = Double.parseDouble(request.get("amount").toString());
         } catch (NumberFormatException e) {
-            metricService.incrementCounter("checkout.bid", 
-            "success", "false", 
-            "reason", "invalid_input",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.bid.duration", System.currentTimeMillis() - startTime,
-             "success", "false",
-            "correlationId", correlationId);
-            
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid productId or bid amount"));
-        }
-
-        Product product = productService.getProductById(productId).orElse(null);
-        if (product == null) {
-            metricService.incrementCounter("checkout.bid", 
-            "success", "false",
-             "reason", "product_not_found",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.bid.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
-
-            return ResponseEntity.status(404).body(Map.of("error", "Product not found with id " + productId));
-        }
-        
-        if(product.isSold()){
-            metricService.incrementCounter("checkout.bid", 
-            "success", "false",
-             "reason", "product_sold",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.bid.duration", System.currentTimeMillis() - startTime, 
-            "success", "false",
-            "correlationId", correlationId);
+            checkoutMetrics.bidRejected(BidFailure.INVALID_INPUT, sample);
 
-            return ResponseEntity.badRequest().body(Map.of(
-                "message", "Product already sold."
-            ));  
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid productId or bid amount"));
         }
 
-        boolean accepted = productService.placeBid(productId, bidAmount);
-
-        long duration = System.currentTimeMillis() - startTime;
-        if (accepted) {
-            metricService.incrementCounter("checkout.bid", 
-            "success", "true",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.bid.duration", duration, 
-            "success", "true",
-            "correlationId", correlationId);
-
-            return ResponseEntity.ok(Map.of(
-                    "message", "Bid for product Id: "+productId+" is accepted."
-            ));
-        } else {
-            metricService.incrementCounter("checkout.bid", 
-            "success", "false", 
-            "reason", "bid_too_low",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.bid.duration", duration, 
-            "success", "false",
-            "correlationId", correlationId);
-            
-            return ResponseEntity.badRequest().body(Map.of(
-                    "message", "Bid too low. Retry agaian."
-            ));
+        BidEngine.BidResult result = productService.evaluateBid(productId, bidAmount);
+
+        switch (result) {
+            case ACCEPTED -> {
+                checkoutMetrics.bidAccepted(sample);
+
+                return ResponseEntity.ok(Map.of(
+                        "message", "Bid for product Id: "+productId+" is accepted."
+                ));
+            }
+            case NOT_FOUND -> {
+                checkoutMetrics.bidRejected(BidFailure.PRODUCT_NOT_FOUND, sample);
+                return ResponseEntity.status(404).body(Map.of("error", "Product not found with id " + productId));
+            }
+            case SOLD -> {
+                checkoutMetrics.bidRejected(BidFailure.PRODUCT_SOLD, sample);
+                return ResponseEntity.badRequest().body(Map.of(
+                    "message", "Product already sold."
+                ));
+            }
+            default -> {
+                checkoutMetrics.bidRejected(BidFailure.BID_TOO_LOW, sample);
+                return ResponseEntity.badRequest().body(Map.of(
+                        "message", "Bid too low. Retry agaian."
+                ));
+            }
         }
     }
 
@@ -122,9 +93,7 @@ public class CheckoutController {
     public ResponseEntity<?> placeOrder(@RequestBody CheckoutRequest request,
                                             HttpServletRequest httpRequest) {
                                      
-        long startTime = System.currentTimeMillis();
-
-        String correlationId = (String) httpRequest.getAttribute("correlationId"); // For business
+        Timer.Sample sample = checkoutMetrics.start();
 
         // Get email from Spring Security instead of header
         User user = authService.getAuthenticatedUser();
@@ -132,14 +101,8 @@ public class CheckoutController {
         if (request.getCart() == null || request.getCart().isEmpty() || request.getAddress() == null ||
             request.getPaymentIntentId() == null || request.getPaymentIntentId().isBlank()) {
 
-            metricService.incrementCounter("checkout.order", 
-            "success", "false", 
-            "reason", "empty_cart | address | payment intent",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.order.duration", System.currentTimeMillis() - startTime,
-             "success", "false",
-            "correlationId", correlationId);
-            
+            checkoutMetrics.orderFailed(OrderFailure.INVALID_REQUEST, sample);
+
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "error", "Invalid cart, missing address, or payment intent"
@@ -155,29 +118,40 @@ public class CheckoutController {
                     request.getAddress().getEmail()
             );
 
-            long duration = System.currentTimeMillis() - startTime;
-            metricService.incrementCounter("checkout.order", 
-            "success", "true",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.order.duration", duration, 
-            "success", "true",
-            "correlationId", correlationId);
+            checkoutMetrics.orderPlaced(sample);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "OrderId "+savedOrder.getId()+" placed successfully."
             ));
 
-        } catch (IllegalArgumentException e) {
-            long duration = System.currentTimeMillis() - startTime;
-            metricService.incrementCounter("checkout.order", 
-            "success", "false", 
-            "reason", "validation_error",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.order.duration", duration, 
-            "success", "false",
-            "correlationId", correlationId);
+        } catch (PaymentUnavailableException e) {
+            checkoutMetrics.orderFailed(OrderFailure.PAYMENT_UNAVAILABLE, sample);
+
+            return ResponseEntity.status(503).body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+
+        } catch (ProductAlreadySoldException e) {
+            checkoutMetrics.orderFailed(OrderFailure.PRODUCT_SOLD, sample);
 
+            return ResponseEntity.status(409).body(Map.of(
+                    "success", false,
+                    "error", e.getMessage(),
+                    "productIds", e.getProductIds()
+            ));
+
+        } catch (PaymentIntentConflictException e) {
+            checkoutMetrics.orderFailed(OrderFailure.PAYMENT_INTENT_CONFLICT, sample);
+
+            return ResponseEntity.status(409).body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+
+        } catch (IllegalArgumentException e) {
+            checkoutMetrics.orderFailed(OrderFailure.VALIDATION_ERROR, sample);
 
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -185,14 +159,7 @@ public class CheckoutController {
             ));
 
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            metricService.incrementCounter("checkout.order", 
-            "success", "false", 
-            "reason", "server_error",
-            "correlationId", correlationId);
-            metricService.recordDuration("checkout.order.duration", duration,
-             "success", "false",
-            "correlationId", correlationId);
+            checkoutMetrics.orderFailed(OrderFailure.SERVER_ERROR, sample);
 
             return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
@@ -1,9 +1,14 @@
 package dk.dtu.backend.controller;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,13 +19,21 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import dk.dtu.backend.dto.ProductPageRequest;
+import dk.dtu.backend.dto.responses.CatalogChangesDTO;
 import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.dto.responses.ProductPageDTO;
+import dk.dtu.backend.dto.responses.SearchResultDTO;
 import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.service.CatalogSnapshot;
 import dk.dtu.backend.service.MetricService;
+import dk.dtu.backend.service.ProductEventStream;
+import dk.dtu.backend.service.ProductSearchIndex;
 import dk.dtu.backend.service.ProductService;
-import dk.dtu.backend.utils.DtoMapper;
 
 @RestController
 @RequestMapping("/api/products")
@@ -32,6 +45,18 @@ public class ProductController {
     @Autowired
     private MetricService metricService;
 
+    @Autowired
+    private ProductEventStream productEventStream;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    // Serve /available from the pre-encoded snapshot instead of serializing DTOs per request
+    @Value("${app.catalog.pre-serialized:true}")
+    private boolean preSerializedCatalog;
+
     // ----------------------------CREATE ------------------------------
     @PostMapping
     @PreAuthorize("hasRole('ARTIST')")
@@ -69,30 +94,163 @@ public class ProductController {
    // Get all products
     @GetMapping
     public ResponseEntity<List<ProductDTO>> getAllProductDTOs() {
-        List<Product> products = productService.getAllProducts();
-
-        // Map Product entities to ProductDTO
-        List<ProductDTO> productDTOs = DtoMapper.toProductDTOList(products);
+        // Projected straight to ProductDTO in one query
+        List<ProductDTO> productDTOs = productService.getAllProductDTOs();
 
         return ResponseEntity.ok(productDTOs);
     }
 
     // Get available products
     @GetMapping("/available")
-    public ResponseEntity<List<ProductDTO>> getAvailableProducts() {
-        long startTime = System.currentTimeMillis();
+    public ResponseEntity<?> getAvailableProducts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        long startTime = System.nanoTime();
+
+        if (!preSerializedCatalog) {
+            //User user = authService.getAuthenticatedUser();
+            // Already mapped to ProductDTO and cached by the service
+            List<ProductDTO> productDTOs = productService.getAvailableProductDTOs();
+
+            Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+            metricService.incrementCounter("products.available.fetch", "success", "true");
+            metricService.recordDuration("products.available.duration", duration, "success", "true");
+
+            return ResponseEntity.ok(productDTOs);
+        }
 
-        //User user = authService.getAuthenticatedUser();
-        List<Product> products = productService.getAvailableProducts(); 
+        CatalogSnapshot snapshot = productService.getAvailableSnapshot();
+        ResponseEntity<?> response;
 
-        // Map Product entities to ProductDTO
-        List<ProductDTO> productDTOs = DtoMapper.toProductDTOList(products);
+        if (snapshot.matches(ifNoneMatch)) {
+            response = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        } else {
+            boolean gzip = CatalogSnapshot.acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .eTag(snapshot.getEtag())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            response = builder.body(gzip ? snapshot.getGzip() : snapshot.getJson());
+        }
 
-        long duration = System.currentTimeMillis() - startTime;
+        Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
         metricService.incrementCounter("products.available.fetch", "success", "true");
         metricService.recordDuration("products.available.duration", duration, "success", "true");
 
-        return ResponseEntity.ok(productDTOs);
+        return response;
+    }
+
+    // Push channel for sold/added/updated/deleted deltas; browsers resume with Last-Event-ID on reconnect
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProductChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        SseEmitter emitter = productEventStream.subscribe(lastEventId);
+        if (emitter == null) {
+            metricService.incrementCounter("products.stream.rejected", "reason", "subscriber_limit");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    // Delta sync: what was added, updated, sold or deleted after the client's version cursor
+    @GetMapping("/changes")
+    public ResponseEntity<?> getCatalogChanges(@RequestParam(defaultValue = "0") long since) {
+        long startTime = System.nanoTime();
+
+        if (since < 0) {
+            metricService.incrementCounter("products.changes.fetch",
+            "success", "false",
+            "reason", "invalid_request");
+
+            return ResponseEntity.badRequest().body(Map.of("error", "since must not be negative"));
+        }
+
+        CatalogChangesDTO changes = productService.getChangesSince(since);
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+        metricService.incrementCounter("products.changes.fetch",
+                "success", "true",
+                "result", changes.isReset() ? "reset" : "delta");
+        metricService.recordDuration("products.changes.duration", duration, "success", "true");
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(changes);
+    }
+
+    // Full-text search over products and artists, answered from the in-memory index
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String style,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) String year,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        long startTime = System.nanoTime();
+
+        if (q == null || q.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            metricService.incrementCounter("products.search.fetch",
+            "success", "false",
+            "reason", "invalid_request");
+
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "q is required and limit must be between 1 and " + MAX_SEARCH_RESULTS));
+        }
+
+        SearchResultDTO result = productSearchIndex.search(q,
+                new ProductSearchIndex.SearchFilters(style, currency, year), limit);
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+        metricService.incrementCounter("products.search.fetch", "success", "true");
+        metricService.recordDuration("products.search.duration", duration, "success", "true");
+
+        return ResponseEntity.ok(result);
+    }
+
+    // Autocomplete for the word being typed
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productSearchIndex.suggest(prefix, Math.max(0, Math.min(limit, MAX_SEARCH_RESULTS))));
+    }
+
+    // Keyset-paginated catalog with optional artist/style/currency filters
+    @GetMapping("/catalog")
+    public ResponseEntity<?> getCatalogPage(ProductPageRequest request) {
+        long startTime = System.nanoTime();
+
+        try {
+            ProductPageDTO page = productService.getProductPage(request);
+
+            Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+            metricService.incrementCounter("products.catalog.fetch", "success", "true");
+            metricService.recordDuration("products.catalog.duration", duration, "success", "true");
+
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            metricService.incrementCounter("products.catalog.fetch", 
+            "success", "false", 
+            "reason", "invalid_request");
+
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // Get products by artist
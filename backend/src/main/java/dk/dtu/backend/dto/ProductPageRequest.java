@@ -0,0 +1,49 @@
+package dk.dtu.backend.dto;
+
+// Query parameters of GET /api/products/catalog (bound from the query string)
+public class ProductPageRequest {
+
+    public static final int DEFAULT_SIZE = 24;
+    public static final int MAX_SIZE = 100;
+
+    private Integer size;
+    private String sort = "dateAdded";   // dateAdded | id | yearCreated
+    private String direction = "desc";   // asc | desc
+    private String cursor;
+    private Integer artistId;
+    private String style;
+    private String currency;
+    private boolean availableOnly = true;
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    // Page size clamped to [1, MAX_SIZE]
+    public int getPageSize() {
+        if (size == null) return DEFAULT_SIZE;
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+
+    public boolean isDescending() { return !"asc".equalsIgnoreCase(direction); }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
+    public Integer getArtistId() { return artistId; }
+    public void setArtistId(Integer artistId) { this.artistId = artistId; }
+
+    public String getStyle() { return style; }
+    public void setStyle(String style) { this.style = style; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public boolean isAvailableOnly() { return availableOnly; }
+    public void setAvailableOnly(boolean availableOnly) { this.availableOnly = availableOnly; }
+}
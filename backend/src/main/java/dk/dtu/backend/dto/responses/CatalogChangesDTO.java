@@ -0,0 +1,42 @@
+package dk.dtu.backend.dto.responses;
+
+import java.util.List;
+
+public class CatalogChangesDTO {
+    private long version;            // cursor for the next ?since=
+    private boolean reset;           // cursor too old or too many changes: reload /available, then continue from version
+    private List<ProductDTO> changed; // added or updated, still for sale
+    private List<Integer> sold;
+    private List<Integer> deleted;
+
+    public CatalogChangesDTO() {}
+
+    public CatalogChangesDTO(long version, boolean reset, List<ProductDTO> changed,
+                             List<Integer> sold, List<Integer> deleted) {
+        this.version = version;
+        this.reset = reset;
+        this.changed = changed;
+        this.sold = sold;
+        this.deleted = deleted;
+    }
+
+    public static CatalogChangesDTO reset(long version) {
+        return new CatalogChangesDTO(version, true, List.of(), List.of(), List.of());
+    }
+
+    // --- getters & setters ---
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public boolean isReset() { return reset; }
+    public void setReset(boolean reset) { this.reset = reset; }
+
+    public List<ProductDTO> getChanged() { return changed; }
+    public void setChanged(List<ProductDTO> changed) { this.changed = changed; }
+
+    public List<Integer> getSold() { return sold; }
+    public void setSold(List<Integer> sold) { this.sold = sold; }
+
+    public List<Integer> getDeleted() { return deleted; }
+    public void setDeleted(List<Integer> deleted) { this.deleted = deleted; }
+}
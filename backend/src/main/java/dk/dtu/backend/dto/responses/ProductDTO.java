@@ -1,5 +1,7 @@
 package dk.dtu.backend.dto.responses;
 
+import java.time.LocalDate;
+
 public class ProductDTO {
     private int id;
     private String title;
@@ -14,6 +16,26 @@ public class ProductDTO {
     private String artistLastName;
     private String style;
 
+    public ProductDTO() {}
+
+    // Used by the constructor-expression queries in ProductRepository
+    public ProductDTO(Integer id, String title, String imageUrl, double secretPrice, String currency,
+                      String description, Integer yearCreated, String productSize, LocalDate dateAdded,
+                      String artistFirstName, String artistLastName, String style) {
+        this.id = id;
+        this.title = title;
+        this.imageUrl = imageUrl;
+        this.secretPrice = secretPrice;
+        this.currency = currency;
+        this.description = description;
+        this.yearCreated = yearCreated != null ? yearCreated.toString() : null;
+        this.productSize = productSize;
+        this.dateAdded = dateAdded != null ? dateAdded.toString() : null;
+        this.artistFirstName = artistFirstName;
+        this.artistLastName = artistLastName;
+        this.style = style;
+    }
+
     // --- getters & setters ---
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -0,0 +1,27 @@
+package dk.dtu.backend.dto.responses;
+
+import java.util.List;
+
+public class ProductPageDTO {
+    private List<ProductDTO> items;
+    private String nextCursor;   // null on the last page
+    private boolean hasMore;
+
+    public ProductPageDTO() {}
+
+    public ProductPageDTO(List<ProductDTO> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // --- getters & setters ---
+    public List<ProductDTO> getItems() { return items; }
+    public void setItems(List<ProductDTO> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,39 @@
+package dk.dtu.backend.dto.responses;
+
+import java.util.List;
+import java.util.Map;
+
+public class SearchResultDTO {
+    private String query;
+    private int total;                 // matching products before the limit
+    private List<ProductDTO> products; // newest first
+    private List<ArtistDTO> artists;
+    private Map<String, Map<String, Integer>> facets; // style/currency/year -> value -> count
+
+    public SearchResultDTO() {}
+
+    public SearchResultDTO(String query, int total, List<ProductDTO> products, List<ArtistDTO> artists,
+                           Map<String, Map<String, Integer>> facets) {
+        this.query = query;
+        this.total = total;
+        this.products = products;
+        this.artists = artists;
+        this.facets = facets;
+    }
+
+    // --- getters & setters ---
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public List<ProductDTO> getProducts() { return products; }
+    public void setProducts(List<ProductDTO> products) { this.products = products; }
+
+    public List<ArtistDTO> getArtists() { return artists; }
+    public void setArtists(List<ArtistDTO> artists) { this.artists = artists; }
+
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Integer>> facets) { this.facets = facets; }
+}
@@ -5,12 +5,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "addresses")
+@Table(name = "addresses", uniqueConstraints =
+        @UniqueConstraint(name = "uk_addresses_user_content_hash", columnNames = { "user_id", "content_hash" }),
+        indexes = @Index(name = "idx_addresses_user", columnList = "user_id"))
 public class Address {
 
     @Id
@@ -49,6 +53,10 @@ public class Address {
     @JoinColumn(name = "user_id", nullable = true)
     private User user;
 
+    // SHA-256 of the normalized fields; set only on a user's interned order addresses, null otherwise
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     public Address() {}
 
     // Getters and Setters
@@ -84,4 +92,7 @@ public class Address {
 
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 }
@@ -3,7 +3,10 @@ package dk.dtu.backend.persistence.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "artists")
+@Table(name = "artists", uniqueConstraints =
+        @UniqueConstraint(name = "uk_artists_user", columnNames = "user_id"), indexes = {
+    @Index(name = "idx_artists_style", columnList = "style")
+})
 public class Artist {
 
     @Id
@@ -11,7 +14,9 @@ public class Artist {
     @Column(name = "id", nullable = false)
     private Integer id;  // simple id
 
-    @OneToOne
+    // One artist per user through uk_artists_user. Mapped as the owning many-to-one of User.artist,
+    // because a @OneToOne would add an unnamed unique key on user_id next to it
+    @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -0,0 +1,47 @@
+package dk.dtu.backend.persistence.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter behind product change versions. Stamps increment it in the same short transaction
+ * that writes the version onto the changed rows, so versions become visible in order and a client cursor
+ * can never skip a change.
+ */
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion {
+
+    public static final int ID = 1;
+    // change_version of a row written but not stamped yet; never matches a cursor
+    public static final long PENDING = -1;
+    // Above the default change_version (0) of rows that predate delta sync, so they never look like changes
+    public static final long INITIAL = 1;
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private Integer id;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Tombstones at or below this version have been pruned; older cursors must reload the catalog
+    @Column(name = "pruned_version", nullable = false)
+    private long prunedVersion;
+
+    public CatalogVersion() {}
+
+    public CatalogVersion(long version) {
+        this.id = ID;
+        this.version = version;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public long getPrunedVersion() { return prunedVersion; }
+    public void setPrunedVersion(long prunedVersion) { this.prunedVersion = prunedVersion; }
+}
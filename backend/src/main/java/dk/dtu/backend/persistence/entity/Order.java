@@ -6,11 +6,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints =
+        @UniqueConstraint(name = "uk_orders_payment_intent", columnNames = "payment_intent_id"),
+        indexes = @Index(name = "idx_orders_user_order_date", columnList = "user_id, order_date"))
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
@@ -20,6 +24,10 @@ public class Order {
     @Column(name = "order_status", nullable = false)
     private String orderStatus;
 
+    // One order per payment intent; replayed checkouts resolve to the original order
+    @Column(name = "payment_intent_id", length = 255)
+    private String paymentIntentId;
+
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = true)
     private User user;
@@ -44,6 +52,9 @@ public class Order {
     public String getOrderStatus() { return orderStatus; }
     public void setOrderStatus(String orderStatus) { this.orderStatus = orderStatus; }
 
+    public String getPaymentIntentId() { return paymentIntentId; }
+    public void setPaymentIntentId(String paymentIntentId) { this.paymentIntentId = paymentIntentId; }
+
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
@@ -1,11 +1,21 @@
 package dk.dtu.backend.persistence.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    // Keyset paging: (filter columns..., sort key, id)
+    @Index(name = "idx_products_sold_date_added", columnList = "sold, date_added, id"),
+    @Index(name = "idx_products_sold_year_created", columnList = "sold, year_created, id"),
+    @Index(name = "idx_products_artist_sold_date_added", columnList = "artist_id, sold, date_added, id"),
+    @Index(name = "idx_products_currency_sold_date_added", columnList = "currency, sold, date_added, id"),
+    // Delta sync: rows changed after a client's cursor
+    @Index(name = "idx_products_change_version", columnList = "change_version")
+})
 public class Product {
 
     @Id
@@ -45,6 +55,20 @@ public class Product {
     @Column(name = "date_added")
     private LocalDate dateAdded;
 
+    // Optimistic lock; also bumped by the conditional sold update in ProductRepository.
+    // Bookkeeping, so neither this nor changeVersion is read from or written to JSON
+    @JsonIgnore
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Catalog version of the last write, stamped after commit; see CatalogChangeService
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion = CatalogVersion.PENDING;
+
     public Product() {}
 
     public Product(String title, double secretPrice, String currency, String imageUrl,
@@ -95,4 +119,10 @@ public class Product {
 
     public LocalDate getDateAdded() { return dateAdded; }
     public void setDateAdded(LocalDate dateAdded) { this.dateAdded = dateAdded; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
 }
@@ -0,0 +1,44 @@
+package dk.dtu.backend.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Remembers a deleted product so delta-sync clients learn about the deletion. Kept for the configured
+ * retention, then pruned.
+ */
+@Entity
+@Table(name = "product_tombstones", indexes = {
+    @Index(name = "idx_product_tombstones_change_version", columnList = "change_version"),
+    @Index(name = "idx_product_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class ProductTombstone {
+
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public ProductTombstone() {}
+
+    public ProductTombstone(Integer productId, long changeVersion, Instant deletedAt) {
+        this.productId = productId;
+        this.changeVersion = changeVersion;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public Integer getProductId() { return productId; }
+    public void setProductId(Integer productId) { this.productId = productId; }
+
+    public long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+
+    public Instant getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(Instant deletedAt) { this.deletedAt = deletedAt; }
+}
@@ -2,7 +2,11 @@ package dk.dtu.backend.persistence.repository;
 
 import dk.dtu.backend.persistence.entity.Address;
 import dk.dtu.backend.persistence.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,11 +15,20 @@ public interface AddressRepository extends JpaRepository<Address, Integer> {
     // Get all addresses of a specific user
     List<Address> findByUser(User user);
 
-    Optional<Address> findByUserId(int userId);
+    // The user's own address; interned order addresses (content_hash set) are not it
+    @Query("select a from Address a where a.user.id = :userId and a.contentHash is null")
+    Optional<Address> findByUserId(@Param("userId") int userId);
 
     // Used for logged-in users
     Optional<Address> findByUserAndAddress1AndCityAndPostalCode(User user, String address1, String city, String postalCode);
 
     // ✅ Used for guests (no user)
     Optional<Address> findByAddress1AndCityAndPostalCode(String address1, String city, String postalCode);
+
+    // Interned order addresses of one user, see AddressService.internAddress
+    Optional<Address> findByUserIdAndContentHash(Integer userId, String contentHash);
+
+    // Locking read: sees rows committed after this transaction started
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Address> findForUpdateByUserIdAndContentHash(Integer userId, String contentHash);
 }
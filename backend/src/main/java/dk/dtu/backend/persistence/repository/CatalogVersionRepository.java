@@ -0,0 +1,27 @@
+package dk.dtu.backend.persistence.repository;
+
+import dk.dtu.backend.persistence.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
+
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Integer> {
+
+    // Takes the row lock until the stamp transaction ends; 0 when the row does not exist yet
+    @Modifying
+    @Query("update CatalogVersion c set c.version = c.version + 1 where c.id = " + CatalogVersion.ID)
+    int increment();
+
+    @Query("select c.version from CatalogVersion c where c.id = " + CatalogVersion.ID)
+    Optional<Long> findCurrentVersion();
+
+    @Query("select c.prunedVersion from CatalogVersion c where c.id = " + CatalogVersion.ID)
+    Optional<Long> findPrunedVersion();
+
+    @Modifying
+    @Query("update CatalogVersion c set c.prunedVersion = :version where c.id = " + CatalogVersion.ID
+            + " and c.prunedVersion < :version")
+    int advancePrunedVersion(@Param("version") long version);
+}
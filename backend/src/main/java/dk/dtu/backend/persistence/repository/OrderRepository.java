@@ -3,8 +3,22 @@ package dk.dtu.backend.persistence.repository;
 import dk.dtu.backend.persistence.entity.Order;
 import dk.dtu.backend.persistence.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
     List<Order> findByUser(User user); // get orders of a user
+
+    // Address rows that orders point to are not edited in place (AddressService.updateAddress)
+    boolean existsByAddressId(Integer addressId);
+
+    // Index-only lookup for idempotent checkout (unique key on payment_intent_id)
+    @Query("SELECT o.id FROM Order o WHERE o.paymentIntentId = :paymentIntentId")
+    Optional<Integer> findIdByPaymentIntentId(@Param("paymentIntentId") String paymentIntentId);
+
+    // Checkout replays compare the original order's user and products with the new request
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Integer id);
 }
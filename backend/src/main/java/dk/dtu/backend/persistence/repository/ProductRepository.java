@@ -1,13 +1,124 @@
 package dk.dtu.backend.persistence.repository;
 
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.persistence.entity.CatalogVersion;
 import dk.dtu.backend.persistence.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
     // Find products that are not sold yet
     List<Product> findBySoldFalse();
 
     // Find products by artist id
     List<Product> findByArtistId(Integer artistId);
+
+    // Read models: products and their artist in one statement, no entity loading
+    String PRODUCT_DTO_SELECT = "select new dk.dtu.backend.dto.responses.ProductDTO("
+            + "p.id, p.title, p.imageUrl, p.secretPrice, p.currency, p.description, "
+            + "p.yearCreated, p.productSize, p.dateAdded, a.firstName, a.lastName, a.style) "
+            + "from Product p left join p.artist a ";
+
+    @Query(PRODUCT_DTO_SELECT + "where p.sold = false")
+    List<ProductDTO> findAvailableProductDTOs();
+
+    @Query(PRODUCT_DTO_SELECT)
+    List<ProductDTO> findAllProductDTOs();
+
+    // Minimal per-product state for the in-memory bid engine
+    interface ProductBidView {
+        Integer getId();
+        double getSecretPrice();
+        boolean isSold();
+    }
+
+    String PRODUCT_BID_SELECT = "select p.id as id, p.secretPrice as secretPrice, p.sold as sold from Product p ";
+
+    @Query(PRODUCT_BID_SELECT)
+    List<ProductBidView> findBidViews();
+
+    @Query(PRODUCT_BID_SELECT + "where p.id = :id")
+    Optional<ProductBidView> findBidViewById(@Param("id") Integer id);
+
+    @Query(PRODUCT_BID_SELECT + "where p.id in :ids")
+    List<ProductBidView> findBidViewsByIds(@Param("ids") Collection<Integer> ids);
+
+    // Delta sync: rows stamped in (since, upTo], oldest change first
+    @Query(PRODUCT_DTO_SELECT + "where p.changeVersion > :since and p.changeVersion <= :upTo and p.sold = false "
+            + "order by p.changeVersion")
+    List<ProductDTO> findProductDTOsChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable limit);
+
+    // Change feed: ids only, the listeners load what they need
+    @Query("select p.id from Product p "
+            + "where p.changeVersion > :since and p.changeVersion <= :upTo and p.sold = false order by p.changeVersion, p.id")
+    List<Integer> findIdsChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable page);
+
+    @Query("select p.id from Product p "
+            + "where p.changeVersion > :since and p.changeVersion <= :upTo and p.sold = true order by p.changeVersion")
+    List<Integer> findIdsSoldBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable limit);
+
+    // Everything the in-memory search index needs about an unsold product and its artist
+    interface ProductSearchView {
+        Integer getId();
+        String getTitle();
+        String getImageUrl();
+        double getSecretPrice();
+        String getCurrency();
+        String getDescription();
+        Integer getYearCreated();
+        String getProductSize();
+        LocalDate getDateAdded();
+        Integer getArtistId();
+        String getArtistFirstName();
+        String getArtistLastName();
+        String getStyle();
+        String getArtistBio();
+    }
+
+    String PRODUCT_SEARCH_SELECT = "select p.id as id, p.title as title, p.imageUrl as imageUrl, "
+            + "p.secretPrice as secretPrice, p.currency as currency, p.description as description, "
+            + "p.yearCreated as yearCreated, p.productSize as productSize, p.dateAdded as dateAdded, "
+            + "a.id as artistId, a.firstName as artistFirstName, a.lastName as artistLastName, "
+            + "a.style as style, a.bio as artistBio "
+            + "from Product p left join p.artist a where p.sold = false ";
+
+    @Query(PRODUCT_SEARCH_SELECT)
+    List<ProductSearchView> findSearchViews();
+
+    @Query(PRODUCT_SEARCH_SELECT + "and p.id in :ids")
+    List<ProductSearchView> findSearchViewsByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query(PRODUCT_SEARCH_SELECT + "and a.id in :artistIds")
+    List<ProductSearchView> findSearchViewsByArtistIds(@Param("artistIds") Collection<Integer> artistIds);
+
+    // Sells only rows that are still unsold; callers compare the count with the ids they asked for.
+    // The row is left pending and gets its catalog version after commit (CatalogChangeService)
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.sold = true, p.version = p.version + 1, p.changeVersion = " + CatalogVersion.PENDING
+            + " where p.id in :ids and p.sold = false")
+    int markSoldIfAvailable(@Param("ids") Collection<Integer> ids);
+
+    // Tells a missing product apart from a sold one when markSoldIfAvailable falls short
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    // ----- Catalog version stamps -----
+    @Query(value = "select id from products where id in (:ids) and change_version = " + CatalogVersion.PENDING
+            + " for update", nativeQuery = true)
+    List<Integer> lockPendingIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("update Product p set p.changeVersion = :version where p.id in :ids")
+    int stampChangeVersion(@Param("ids") Collection<Integer> ids, @Param("version") long version);
+
+    @Query("select p.id from Product p where p.changeVersion = " + CatalogVersion.PENDING)
+    List<Integer> findPendingIds(Pageable limit);
 }
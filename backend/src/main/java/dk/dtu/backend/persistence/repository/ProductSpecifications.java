@@ -0,0 +1,83 @@
+package dk.dtu.backend.persistence.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+
+/**
+ * Filter and keyset predicates for catalog paging. Every filter combination
+ * is backed by one of the composite indexes declared on {@link Product}.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {}
+
+    // Fetch-joins the artist (and its user, which is eagerly mapped) so listing N products is one statement
+    public static Specification<Product> fetchArtist() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())
+                    && !long.class.equals(query.getResultType())) {
+                Fetch<Product, Artist> artist = root.fetch("artist", JoinType.LEFT);
+                artist.fetch("user", JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+
+    public static Specification<Product> isSold(boolean sold) {
+        return (root, query, cb) -> cb.equal(root.get("sold"), sold);
+    }
+
+    public static Specification<Product> hasArtist(Integer artistId) {
+        return (root, query, cb) -> cb.equal(root.get("artist").get("id"), artistId);
+    }
+
+    public static Specification<Product> hasCurrency(String currency) {
+        return (root, query, cb) -> cb.equal(root.get("currency"), currency);
+    }
+
+    public static Specification<Product> hasStyle(String style) {
+        return (root, query, cb) -> {
+            Join<Product, Artist> artist = root.join("artist");
+            return cb.equal(artist.get("style"), style);
+        };
+    }
+
+    // Rows strictly after (key, id) in the requested order; id breaks ties between equal keys.
+    // NULL keys sort lowest: first when ascending, last when descending. key == null is a cursor on a NULL row.
+    public static <Y extends Comparable<? super Y>> Specification<Product> after(
+            String attribute, Y key, Integer id, boolean descending) {
+        return (root, query, cb) -> {
+            Path<Y> keyPath = root.get(attribute);
+            Path<Integer> idPath = root.get("id");
+            if (descending) {
+                if (key == null) {
+                    return cb.and(cb.isNull(keyPath), cb.lessThan(idPath, id));
+                }
+                return cb.or(
+                        cb.lessThan(keyPath, key),
+                        cb.and(cb.equal(keyPath, key), cb.lessThan(idPath, id)),
+                        cb.isNull(keyPath));
+            }
+            if (key == null) {
+                return cb.or(
+                        cb.and(cb.isNull(keyPath), cb.greaterThan(idPath, id)),
+                        cb.isNotNull(keyPath));
+            }
+            return cb.or(
+                    cb.greaterThan(keyPath, key),
+                    cb.and(cb.equal(keyPath, key), cb.greaterThan(idPath, id)));
+        };
+    }
+
+    public static Specification<Product> afterId(Integer id, boolean descending) {
+        return (root, query, cb) -> descending
+                ? cb.lessThan(root.<Integer>get("id"), id)
+                : cb.greaterThan(root.<Integer>get("id"), id);
+    }
+}
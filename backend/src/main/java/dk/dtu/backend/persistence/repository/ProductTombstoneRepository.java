@@ -0,0 +1,41 @@
+package dk.dtu.backend.persistence.repository;
+
+import dk.dtu.backend.persistence.entity.CatalogVersion;
+import dk.dtu.backend.persistence.entity.ProductTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Integer> {
+
+    @Query("select t.productId from ProductTombstone t "
+            + "where t.changeVersion > :since and t.changeVersion <= :upTo order by t.changeVersion")
+    List<Integer> findProductIdsChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable limit);
+
+    @Query("select max(t.changeVersion) from ProductTombstone t where t.deletedAt < :cutoff")
+    Optional<Long> findMaxVersionDeletedBefore(@Param("cutoff") Instant cutoff);
+
+    // Pending tombstones (not stamped yet) are never pruned
+    @Modifying
+    @Query("delete from ProductTombstone t where t.changeVersion <= :version and t.changeVersion <> "
+            + CatalogVersion.PENDING)
+    int deleteUpToVersion(@Param("version") long version);
+
+    // ----- Catalog version stamps -----
+    @Query(value = "select product_id from product_tombstones where product_id in (:ids) and change_version = "
+            + CatalogVersion.PENDING + " for update", nativeQuery = true)
+    List<Integer> lockPendingIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("update ProductTombstone t set t.changeVersion = :version where t.productId in :ids")
+    int stampChangeVersion(@Param("ids") Collection<Integer> ids, @Param("version") long version);
+
+    @Query("select t.productId from ProductTombstone t where t.changeVersion = " + CatalogVersion.PENDING)
+    List<Integer> findPendingIds(Pageable limit);
+}
@@ -2,10 +2,16 @@ package dk.dtu.backend.persistence.repository;
 
 import dk.dtu.backend.persistence.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     // Custom method to find user by email
     Optional<User> findByEmail(String email); 
+
+    // Row lock until the caller's transaction ends; serializes one user's first use of a new order address
+    @Query(value = "select id from users where id = :id for update", nativeQuery = true)
+    Optional<Integer> lockById(@Param("id") Integer id);
 }
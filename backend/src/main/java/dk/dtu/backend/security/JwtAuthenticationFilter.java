@@ -3,6 +3,7 @@ package dk.dtu.backend.security;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +14,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import dk.dtu.backend.utils.JwtPrincipal;
 import dk.dtu.backend.utils.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -35,11 +37,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extract JWT from cookie
         String token = extractTokenFromCookie(request);
         
-        if (token != null && JwtUtil.validateToken(token)) {
+        // Parsed and verified once; the same token on later requests skips signature verification
+        Optional<JwtPrincipal> principal = JwtUtil.parse(token);
+
+        if (principal.isPresent()) {
             try {
-                String email = JwtUtil.getEmailFromToken(token);
-                String userRole = JwtUtil.getRoleFromToken(token);
-                int userId = JwtUtil.getUserIdFromToken(token);
+                String email = principal.get().email();
+                String userRole = principal.get().role();
+                int userId = principal.get().userId();
                 
                 // Create Spring Security authentication
                 UsernamePasswordAuthenticationToken authentication = 
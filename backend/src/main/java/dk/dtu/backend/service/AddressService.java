@@ -1,25 +1,51 @@
 package dk.dtu.backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import dk.dtu.backend.persistence.entity.Address;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.AddressRepository;
+import dk.dtu.backend.persistence.repository.OrderRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import jakarta.transaction.Transactional;
 
 @Service
 public class AddressService {
 
+    private static final int MAX_INTERNED_USERS = 10_000;
+    private static final int MAX_INTERNED_PER_USER = 16;
+
     @Autowired
     private AddressRepository addressRepository;
 
     @Autowired
     private LoggingService loggingService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // User id -> (content hash -> address id), so repeat customers skip the lookup entirely
+    private final Map<Integer, Map<String, Integer>> internedByUser = lru(MAX_INTERNED_USERS);
+
     // ------------------ CREATE -----------------------
     public Address saveAddress(Address address) {
         loggingService.info("Address creation started", Map.of(
@@ -45,6 +71,97 @@ public class AddressService {
         }
     }
 
+    // ------------------ INTERN -----------------------
+    // A user's order shipping addresses are stored once per distinct content and reused by that user's later
+    // orders; rows stay owned by the user and are never shared across users. Guests get a fresh row per order.
+    // Must run inside the order transaction: a new row is only cached once that transaction commits.
+    public Address internAddress(User user, Address address) {
+        if (user == null || user.getId() == null) {
+            return saveAddress(address);
+        }
+
+        Integer userId = user.getId();
+        String hash = contentHash(address);
+        Integer cachedId = interned(userId).get(hash);
+        if (cachedId != null) {
+            // Only the id is needed to link the order; no select, no entity kept across transactions
+            return addressRepository.getReferenceById(cachedId);
+        }
+
+        Address stored = addressRepository.findByUserIdAndContentHash(userId, hash).orElseGet(() -> {
+            // First order to this address: serialize on the user's row, then re-check with a locking read,
+            // so two concurrent checkouts of the same user insert it once (portable, no vendor upsert)
+            userRepository.lockById(userId);
+            return addressRepository.findForUpdateByUserIdAndContentHash(userId, hash).orElseGet(() -> {
+                address.setUser(user);
+                address.setContentHash(hash);
+                return addressRepository.save(address);
+            });
+        });
+
+        Integer storedId = stored.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    interned(userId).put(hash, storedId);
+                }
+            });
+        } else {
+            interned(userId).put(hash, storedId);
+        }
+
+        loggingService.debug("Shipping address interned", Map.of(
+            "addressId", String.valueOf(storedId),
+            "userId", String.valueOf(userId)
+        ));
+        return stored;
+    }
+
+    // Case, surrounding and repeated whitespace do not make a different address
+    public static String contentHash(Address address) {
+        String canonical = Stream.of(address.getFirstName(), address.getLastName(), address.getEmail(),
+                        address.getMobileNr(), address.getCountry(), address.getPostalCode(), address.getCity(),
+                        address.getAddress1(), address.getAddress2())
+                .map(AddressService::normalize)
+                .collect(Collectors.joining("\u001f"));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Content hash -> address id for one user, least recently used dropped first
+    private Map<String, Integer> interned(Integer userId) {
+        return internedByUser.computeIfAbsent(userId, id -> lru(MAX_INTERNED_PER_USER));
+    }
+
+    private static <K, V> Map<K, V> lru(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private void forget(Address address) {
+        if (address.getUser() != null) {
+            Map<String, Integer> hashes = internedByUser.get(address.getUser().getId());
+            if (hashes != null) {
+                synchronized (hashes) {
+                    hashes.values().removeIf(address.getId()::equals);
+                }
+            }
+        }
+    }
+
     // ------------------ READ -----------------------
         public Optional<Address> getUserAddress(int userId) {
         loggingService.info("User address lookup started", Map.of(
@@ -93,6 +210,8 @@ public class AddressService {
         return addresses;
     }
     // ------------------ UPDATE -----------------------
+    // Rows that orders point to are copied, not edited, so past orders keep the address they shipped to
+    @Transactional
     public Optional<Address> updateAddress(Integer id, Address updatedAddress) {
         Optional<Address> addressOpt = addressRepository.findById(id);
         if (addressOpt.isEmpty()) {
@@ -101,33 +220,53 @@ public class AddressService {
         }
 
         Address address = addressOpt.get();
-        address.setFirstName(updatedAddress.getFirstName());
-        address.setLastName(updatedAddress.getLastName());
-        address.setEmail(updatedAddress.getEmail());
-        address.setMobileNr(updatedAddress.getMobileNr());
-        address.setCountry(updatedAddress.getCountry());
-        address.setPostalCode(updatedAddress.getPostalCode());
-        address.setCity(updatedAddress.getCity());
-        address.setAddress1(updatedAddress.getAddress1());
-        address.setAddress2(updatedAddress.getAddress2());
-
-        Address saved = addressRepository.save(address);
+        Address saved;
+        if (address.getContentHash() != null) {
+            // An interned order address: the edited content is interned as a row of its own
+            saved = internAddress(address.getUser(), copyFields(updatedAddress, new Address()));
+        } else if (orderRepository.existsByAddressId(id)) {
+            // The new row takes over as the user's own address; the old one stays with its orders
+            Address copy = copyFields(updatedAddress, new Address());
+            copy.setUser(address.getUser());
+            address.setUser(null);
+            addressRepository.save(address);
+            saved = addressRepository.save(copy);
+        } else {
+            saved = addressRepository.save(copyFields(updatedAddress, address));
+        }
+
         loggingService.info("Address updated successfully", Map.of(
             "addressId", String.valueOf(id),
+            "storedAs", String.valueOf(saved.getId()),
             "city", saved.getCity(),
             "action", "update"
         ));
         return Optional.of(saved);
     }
 
+    private static Address copyFields(Address from, Address to) {
+        to.setFirstName(from.getFirstName());
+        to.setLastName(from.getLastName());
+        to.setEmail(from.getEmail());
+        to.setMobileNr(from.getMobileNr());
+        to.setCountry(from.getCountry());
+        to.setPostalCode(from.getPostalCode());
+        to.setCity(from.getCity());
+        to.setAddress1(from.getAddress1());
+        to.setAddress2(from.getAddress2());
+        return to;
+    }
+
     // ------------------ DELETE -----------------------
     public boolean deleteAddress(Integer id) {
-        if (!addressRepository.existsById(id)) {
+        Optional<Address> addressOpt = addressRepository.findById(id);
+        if (addressOpt.isEmpty()) {
             loggingService.warn("Attempted to delete non-existing address", Map.of("addressId", id.toString()));
             return false;
         }
 
-        addressRepository.deleteById(id);
+        addressRepository.delete(addressOpt.get());
+        forget(addressOpt.get());
         loggingService.info("Address deleted successfully", Map.of(
             "addressId", id.toString(),
             "action", "delete"
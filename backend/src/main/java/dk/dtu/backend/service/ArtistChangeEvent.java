@@ -0,0 +1,14 @@
+package dk.dtu.backend.service;
+
+import java.util.List;
+
+/**
+ * Published by ArtistService whenever an artist is created, updated or deleted.
+ * Listeners re-read the artists after the surrounding transaction commits; a missing row means deleted.
+ */
+public record ArtistChangeEvent(List<Integer> artistIds) {
+
+    public static ArtistChangeEvent of(Integer artistId) {
+        return new ArtistChangeEvent(List.of(artistId));
+    }
+}
@@ -5,6 +5,7 @@ import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.ArtistRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -23,10 +24,14 @@ public class ArtistService {
     @Autowired
     private LoggingService loggingService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ------------------ CREATE -----------------------
     public Artist saveArtist(Artist artist) {
         try {
             Artist saved = artistRepository.save(artist);
+            eventPublisher.publishEvent(ArtistChangeEvent.of(saved.getId()));
             loggingService.info("Artist saved successfully", Map.of(
                 "artistId", String.valueOf(saved.getId()),
                 "userId", artist.getUser() != null ? String.valueOf(artist.getUser().getId()) : "null",
@@ -74,6 +79,7 @@ public class ArtistService {
         artist.setStyle(updatedArtist.getStyle());
 
         Artist saved = artistRepository.save(artist);
+        eventPublisher.publishEvent(ArtistChangeEvent.of(saved.getId()));
         return Optional.of(saved);
     }
 
@@ -84,6 +90,7 @@ public class ArtistService {
         }
 
         artistRepository.deleteById(id);
+        eventPublisher.publishEvent(ArtistChangeEvent.of(id));
         return true;
     }
 
@@ -93,6 +100,7 @@ public class ArtistService {
         try {
             productService.deleteProductsByArtist(artistId);
             artistRepository.deleteById(artistId);
+            eventPublisher.publishEvent(ArtistChangeEvent.of(artistId));
         } catch (Exception e) {
             throw e;
         }
@@ -0,0 +1,119 @@
+package dk.dtu.backend.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Typed meters for registration and email/password login, resolved once at startup.
+ * Registration latency is published as a percentile histogram.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum RegisterFailure {
+        INVALID_EMAIL("invalid_email"),
+        INVALID_PASSWORD("invalid_password"),
+        MISSING_ARTIST("missing_artist"),
+        MISSING_ADDRESS("missing_address"),
+        DUPLICATE_OR_DB_ERROR("duplicate_or_db_error"),
+        HASHING_BUSY("hashing_busy");
+
+        private final String reason;
+
+        RegisterFailure(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    public enum LoginFailure {
+        MISSING_CREDENTIALS("missing_credentials"),
+        INVALID_CREDENTIALS("invalid_credentials"),
+        HASHING_BUSY("hashing_busy");
+
+        private final String reason;
+
+        LoginFailure(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter registered;
+    private final Map<RegisterFailure, Counter> registerFailed = new EnumMap<>(RegisterFailure.class);
+    private final Timer registerSuccessTimer;
+    private final Timer registerFailureTimer;
+
+    private final Counter loggedIn;
+    private final Map<LoginFailure, Counter> loginFailed = new EnumMap<>(LoginFailure.class);
+    private final Timer loginSuccessTimer;
+    private final Timer loginFailureTimer;
+
+    @Autowired
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.registered = outcomeCounter("auth.register", null);
+        for (RegisterFailure failure : RegisterFailure.values()) {
+            registerFailed.put(failure, outcomeCounter("auth.register", failure.reason));
+        }
+        this.registerSuccessTimer = latencyTimer("auth.register.duration", true, true);
+        this.registerFailureTimer = latencyTimer("auth.register.duration", false, true);
+
+        this.loggedIn = outcomeCounter("auth.login", null);
+        for (LoginFailure failure : LoginFailure.values()) {
+            loginFailed.put(failure, outcomeCounter("auth.login", failure.reason));
+        }
+        this.loginSuccessTimer = latencyTimer("auth.login.duration", true, false);
+        this.loginFailureTimer = latencyTimer("auth.login.duration", false, false);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    // ----------------------------- REGISTER -----------------------------
+    public void registered(Timer.Sample sample) {
+        registered.increment();
+        sample.stop(registerSuccessTimer);
+    }
+
+    public void registerFailed(RegisterFailure failure, Timer.Sample sample) {
+        registerFailed.get(failure).increment();
+        sample.stop(registerFailureTimer);
+    }
+
+    // ----------------------------- LOGIN -----------------------------
+    public void loggedIn(Timer.Sample sample) {
+        loggedIn.increment();
+        sample.stop(loginSuccessTimer);
+    }
+
+    public void loginFailed(LoginFailure failure, Timer.Sample sample) {
+        loginFailed.get(failure).increment();
+        sample.stop(loginFailureTimer);
+    }
+
+    // ----------------------------- REGISTRATION -----------------------------
+    private Counter outcomeCounter(String name, String reason) {
+        Counter.Builder builder = Counter.builder(name).tag("success", String.valueOf(reason == null));
+        if (reason != null) {
+            builder.tag("reason", reason);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private Timer latencyTimer(String name, boolean success, boolean histogram) {
+        return Timer.builder(name)
+                .tag("success", String.valueOf(success))
+                .publishPercentileHistogram(histogram)
+                .register(meterRegistry);
+    }
+}
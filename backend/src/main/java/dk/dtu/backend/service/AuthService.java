@@ -1,22 +1,22 @@
 package dk.dtu.backend.service;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
 
+import dk.dtu.backend.config.FirebaseConfig;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.UserPrincipalCache.UserPrincipal;
 import dk.dtu.backend.utils.JwtUtil;
 
 @Service
@@ -28,20 +28,36 @@ public class AuthService {
     @Autowired
     private LoggingService loggingService;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private FirebaseConfig firebaseConfig;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ------------------------- Email/Password login -------------------------
+    // Throws PasswordHashingBusyException when the hashing pool is saturated
     public Optional<String> login(String email, String rawPassword) {
         
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<UserPrincipal> principalOpt = principalCache.find(email);
 
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            String storedPassword = user.getPassword();
+        if (principalOpt.isPresent()) {
+            UserPrincipal principal = principalOpt.get();
 
-            if (storedPassword != null && encryptPassword(rawPassword).equals(storedPassword)) {
-                String token = JwtUtil.generateToken(user.getEmail(), user.getAccountType(), user.getId());
+            PasswordHashingService.Verification verification = passwordHashingService.verify(rawPassword, principal.passwordHash());
+            if (verification.matches()) {
+                if (verification.upgradedHash() != null) {
+                    upgradePasswordHash(principal, verification.upgradedHash());
+                }
+                String token = JwtUtil.generateToken(principal.email(), principal.accountType(), principal.id());
                 loggingService.info("User authentication successful", Map.of(
                         "email", email,
-                        "accountType", user.getAccountType()
+                        "accountType", principal.accountType()
                 ));
                 return Optional.of(token);
             } else {
@@ -51,6 +67,8 @@ public class AuthService {
                 ));
             }
         } else {
+            // Same hashing cost as a wrong password, so timing does not reveal whether the email exists
+            passwordHashingService.verify(rawPassword, null);
             loggingService.warn("Authentication failed - user not found", Map.of(
                     "email", email,
                     "reason", "user_not_found"
@@ -67,8 +85,7 @@ public class AuthService {
             "accountType", user.getAccountType()
         ));
 
-        Optional<User> existingUser = userRepository.findByEmail(user.getEmail());
-        if (existingUser.isPresent()) {
+        if (principalCache.find(user.getEmail()).isPresent()) {
             loggingService.warn("Registration failed - email already exists", Map.of(
                     "email", user.getEmail(),
                     "reason", "duplicate_email"
@@ -85,14 +102,19 @@ public class AuthService {
         }
 
         if (user.getPassword() != null) {
-            user.setPassword(encryptPassword(user.getPassword()));
-            loggingService.debug("Password encrypted for registration", Map.of(
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
+            loggingService.debug("Password hashed for registration", Map.of(
                 "email", user.getEmail()
             ));
         }
 
         try {
             userRepository.save(user); // cascades Artist/Address automatically
+            principalCache.invalidate(user.getEmail());
+            // The artist is created through the cascade, not ArtistService, so announce it here
+            if (user.getArtist() != null && user.getArtist().getId() != null) {
+                eventPublisher.publishEvent(ArtistChangeEvent.of(user.getArtist().getId()));
+            }
             loggingService.info("User registration completed successfully", Map.of(
                     "email", user.getEmail(),
                     "accountType", user.getAccountType()
@@ -114,22 +136,22 @@ public class AuthService {
         ));
 
         try {
-            FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
+            FirebaseToken decodedToken = firebaseConfig.getAuth().verifyIdToken(idToken);
             String email = decodedToken.getEmail();
 
-            Optional<User> userOpt = userRepository.findByEmail(email);
-            User user = userOpt.orElseGet(() -> {
+            UserPrincipal user = principalCache.find(email).orElseGet(() -> {
                 User newUser = new User();
                 newUser.setEmail(email);
                 newUser.setAccountType("GOOGLE");
                 userRepository.save(newUser);
+                principalCache.invalidate(email);
                 loggingService.info("New user created via Firebase authentication", Map.of(
                         "email", email
                 ));
-                return newUser;
+                return new UserPrincipal(newUser.getId(), email, newUser.getAccountType(), null);
             });
 
-            String token = JwtUtil.generateToken(user.getEmail(), user.getAccountType(), user.getId());
+            String token = JwtUtil.generateToken(user.email(), user.accountType(), user.id());
             loggingService.info("Firebase authentication completed successfully", Map.of(
                     "email", email
             ));
@@ -144,26 +166,17 @@ public class AuthService {
     }
 
     // ------------------------- Helper Methods -------------------------
-    private String encryptPassword(String rawPassword) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(rawPassword.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            loggingService.error("Password encryption algorithm not available", Map.of(
-                    "error", e.getMessage(),
-                    "algorithm", "SHA-256"
+    private void upgradePasswordHash(UserPrincipal principal, String upgradedHash) {
+        userRepository.findById(principal.id()).ifPresent(user -> {
+            user.setPassword(upgradedHash);
+            userRepository.save(user);
+            principalCache.invalidate(principal.email());
+            loggingService.info("Password hash upgraded on login", Map.of(
+                    "email", principal.email()
             ));
-            return null;
-        }
+        });
     }
- 
+
     //Get authenticated user and if user is not authenticated (guest) returns null
     public User getAuthenticatedUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -0,0 +1,242 @@
+package dk.dtu.backend.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import dk.dtu.backend.persistence.repository.ProductRepository;
+
+/**
+ * Evaluates bids against an in-memory table of per-product state (secret price, sold flag, version),
+ * indexed directly by product id. Reads are lock-free; the table is warmed at startup and kept current
+ * through ProductChangeEvents. Those only cover this instance's writes, so an entry older than the TTL is
+ * read again from the database: changes made by another instance show up within the TTL. The final say
+ * on a sale stays with the conditional update at checkout.
+ */
+@Service
+public class BidEngine {
+
+    public enum BidResult {
+        ACCEPTED,
+        TOO_LOW,
+        SOLD,
+        NOT_FOUND
+    }
+
+    // found = false is a product known not to exist; loadedAt (System.nanoTime) drives the TTL
+    private record BidState(double secretPrice, boolean sold, boolean found, long version, long loadedAt) {
+        static BidState of(double secretPrice, boolean sold, long now) {
+            return new BidState(secretPrice, sold, true, 1, now);
+        }
+
+        static BidState missing(long now) {
+            return new BidState(0, true, false, 1, now);
+        }
+
+        BidState next(double secretPrice, boolean sold, long now) {
+            return new BidState(secretPrice, sold, true, version + 1, now);
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 22;
+
+    // Answer for ids the table cannot hold; never stored
+    private static final BidState ABSENT = new BidState(0, true, false, -1, 0);
+    // Sentinel, compared by identity: slot moved to a larger table
+    private static final BidState MOVED = new BidState(0, true, false, -1, 0);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    @Value("${app.bids.state-ttl:5s}")
+    private Duration stateTtl = Duration.ofSeconds(5);
+
+    private volatile AtomicReferenceArray<BidState> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    // Product id -> database read in progress for it
+    private final Map<Integer, CompletableFuture<BidState>> loading = new ConcurrentHashMap<>();
+
+    // ----------------------------- EVALUATE -----------------------------
+    public BidResult evaluate(int productId, double bidValue) {
+        BidState state = lookup(productId);
+        if (!state.found()) {
+            return BidResult.NOT_FOUND;
+        }
+        if (state.sold()) {
+            return BidResult.SOLD;
+        }
+        return bidValue >= state.secretPrice() ? BidResult.ACCEPTED : BidResult.TOO_LOW;
+    }
+
+    private BidState lookup(int productId) {
+        if (productId <= 0) {
+            return ABSENT;
+        }
+        long now = System.nanoTime();
+        BidState state = get(productId);
+        if (state != null && now - state.loadedAt() < stateTtl.toNanos()) {
+            return state;
+        }
+
+        // First time we see this id, or the entry may miss another instance's change: read it again.
+        // Concurrent bids on the same id share one read
+        CompletableFuture<BidState> reading = new CompletableFuture<>();
+        CompletableFuture<BidState> inFlight = loading.putIfAbsent(productId, reading);
+        if (inFlight != null) {
+            return awaitLoad(inFlight);
+        }
+        try {
+            BidState loaded = load(productId, state, now);
+            reading.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            reading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(productId, reading);
+        }
+    }
+
+    private BidState load(int productId, BidState state, long now) {
+        BidState loaded = productRepository.findBidViewById(productId)
+                .map(product -> BidState.of(product.getSecretPrice(), product.isSold(), now))
+                .orElseGet(() -> BidState.missing(now));
+
+        // Unknown ids are only remembered if they fit the current table, so probing cannot grow it
+        if (!loaded.found() && productId >= table.length()) {
+            return loaded;
+        }
+        if (productId >= MAX_CAPACITY) {
+            return loaded;
+        }
+        // A change event (or another reload) since our read wins over what we just read
+        return update(productId, current -> current == state ? loaded : current);
+    }
+
+    // The reader's failure is rethrown to the bids that waited on it unchanged
+    private static BidState awaitLoad(CompletableFuture<BidState> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // ----------------------------- PRODUCT CHANGES -----------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<ProductRepository.ProductBidView> products = productRepository.findBidViews();
+        for (ProductRepository.ProductBidView product : products) {
+            put(product.getId(), product.getSecretPrice(), product.isSold());
+        }
+        loggingService.info("Bid engine warmed up", Map.of(
+            "productCount", String.valueOf(products.size())
+        ));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        switch (event.type()) {
+            case SOLD -> event.productIds().forEach(id -> update(id, current ->
+                    current == null || !current.found()
+                            ? BidState.of(0, true, System.nanoTime())
+                            : current.next(current.secretPrice(), true, System.nanoTime())));
+            case DELETED -> event.productIds().forEach(id -> update(id, current -> BidState.missing(System.nanoTime())));
+            case CREATED, UPDATED -> reload(event.productIds());
+        }
+    }
+
+    private void reload(List<Integer> productIds) {
+        Set<Integer> missing = new HashSet<>(productIds);
+        for (ProductRepository.ProductBidView product : productRepository.findBidViewsByIds(productIds)) {
+            put(product.getId(), product.getSecretPrice(), product.isSold());
+            missing.remove(product.getId());
+        }
+        missing.forEach(id -> update(id, current -> BidState.missing(System.nanoTime())));
+    }
+
+    private void put(Integer productId, double secretPrice, boolean sold) {
+        if (productId == null || productId <= 0 || productId >= MAX_CAPACITY) {
+            return;
+        }
+        long now = System.nanoTime();
+        update(productId, current -> current == null || !current.found()
+                ? BidState.of(secretPrice, sold, now)
+                : current.next(secretPrice, sold, now));
+    }
+
+    // ----------------------------- TABLE -----------------------------
+    private BidState get(int productId) {
+        AtomicReferenceArray<BidState> current = table;
+        if (productId >= current.length()) {
+            return null;
+        }
+        BidState state = current.get(productId);
+        while (state == MOVED) {
+            Thread.onSpinWait();
+            current = table;
+            state = current.get(productId);
+        }
+        return state;
+    }
+
+    private BidState update(int productId, UnaryOperator<BidState> change) {
+        if (productId <= 0 || productId >= MAX_CAPACITY) {
+            return ABSENT;
+        }
+        while (true) {
+            AtomicReferenceArray<BidState> current = table;
+            if (productId >= current.length()) {
+                grow(productId);
+                continue;
+            }
+            BidState state = current.get(productId);
+            if (state == MOVED) {
+                Thread.onSpinWait();
+                continue;
+            }
+            BidState next = change.apply(state);
+            if (current.compareAndSet(productId, state, next)) {
+                return next;
+            }
+        }
+    }
+
+    // Copies into a larger table; each old slot is swapped for MOVED so no concurrent write is lost
+    private synchronized void grow(int productId) {
+        AtomicReferenceArray<BidState> current = table;
+        if (productId < current.length()) {
+            return;
+        }
+        int capacity = current.length();
+        while (capacity <= productId) {
+            capacity <<= 1;
+        }
+        AtomicReferenceArray<BidState> grown = new AtomicReferenceArray<>(Math.min(capacity, MAX_CAPACITY));
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.getAndSet(i, MOVED));
+        }
+        table = grown;
+    }
+}
@@ -0,0 +1,355 @@
+package dk.dtu.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dk.dtu.backend.dto.responses.CatalogChangesDTO;
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.persistence.entity.CatalogVersion;
+import dk.dtu.backend.persistence.entity.ProductTombstone;
+import dk.dtu.backend.persistence.repository.CatalogVersionRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.ProductTombstoneRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+
+/**
+ * Version cursors for delta-sync clients. Product writes only mark their rows (or tombstones) as pending;
+ * once the writer has committed, the stamp thread takes the next catalog version in a short transaction of its
+ * own and stamps those rows with it. The counter row is locked only for that stamp, never for a checkout, so
+ * product writes do not queue behind each other. The stamp is handed off rather than run on the writer's
+ * thread: after commit the writer still holds its connection, and a second one per writer starves the pool
+ * under concurrent checkouts. Readers stamp whatever is still queued before they read, so a write that has
+ * returned is always visible to the next changes call on this instance. A client sends the last version it saw
+ * and receives what changed after it; since the stamp commits together with the counter, a cursor never jumps
+ * past a change that shows up later.
+ * Rows whose stamp was lost (crash or failure right after commit) are picked up by a periodic sweep.
+ * The counter also drives a change feed: versions stamped by another instance are republished here as
+ * remote ProductChangeEvents, so this instance's caches, search index and event stream follow writes it
+ * did not make (within the feed interval).
+ */
+@Service
+public class CatalogChangeService {
+
+    private static final int SWEEP_BATCH = 500;
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final ProductRepository productRepository;
+    private final LoggingService loggingService;
+    private final TransactionTemplate stampTransaction;
+    private final Duration tombstoneRetention;
+    private final Duration sweepInterval;
+    private final Duration feedInterval;
+    private final int maxChanges;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // One entry per committed write, stamped in order; stampLock is held while an entry is being stamped
+    private final Queue<Collection<Integer>> queuedStamps = new ConcurrentLinkedQueue<>();
+    private final Object stampLock = new Object();
+
+    // Versions stamped for this instance's own writes, whose events already went out; feed thread prunes them
+    private final NavigableSet<Long> localVersions = new ConcurrentSkipListSet<>();
+    // Highest version the feed has published up to; feed thread only
+    private long fedVersion;
+
+    private volatile ScheduledExecutorService sweeper;
+
+    public CatalogChangeService(CatalogVersionRepository catalogVersionRepository,
+                                ProductTombstoneRepository tombstoneRepository,
+                                ProductRepository productRepository,
+                                LoggingService loggingService,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.catalog.tombstone-retention:30d}") Duration tombstoneRetention,
+                                @Value("${app.catalog.stamp-sweep-interval:1m}") Duration sweepInterval,
+                                @Value("${app.catalog.change-feed-interval:2s}") Duration feedInterval,
+                                @Value("${app.catalog.max-changes:500}") int maxChanges) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.productRepository = productRepository;
+        this.loggingService = loggingService;
+        this.tombstoneRetention = tombstoneRetention;
+        this.sweepInterval = sweepInterval;
+        this.feedInterval = feedInterval;
+        this.maxChanges = maxChanges;
+        this.eventPublisher = eventPublisher;
+
+        this.stampTransaction = new TransactionTemplate(transactionManager);
+        this.stampTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Writers never touch the counter row, but stamps do, so it has to exist first (migrations seed it too).
+    // The counter starts above the default change_version of existing rows, so a cursor of 0 always means "no cursor".
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!catalogVersionRepository.existsById(CatalogVersion.ID)) {
+            try {
+                catalogVersionRepository.save(new CatalogVersion(CatalogVersion.INITIAL));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-stamp-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        stampQueued();
+        sweepPending();
+        long intervalMillis = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweepPending, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        // Everything up to now is already in this instance's caches, loaded at startup
+        fedVersion = catalogVersionRepository.findCurrentVersion().orElse(0L);
+        long feedMillis = feedInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::feedRemoteChanges, feedMillis, feedMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    // ----------------------------- WRITE -----------------------------
+    // In the writer's transaction; the tombstones get their version once it commits
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordDeletion(Collection<Integer> productIds) {
+        Instant now = Instant.now();
+        tombstoneRepository.saveAll(productIds.stream()
+                .map(id -> new ProductTombstone(id, CatalogVersion.PENDING, now))
+                .toList());
+    }
+
+    // After commit; queued for the stamp thread (writes before startup are stamped once it starts).
+    // Remote events come from the feed and are stamped already.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.remote() || event.productIds().isEmpty()) {
+            return;
+        }
+        queuedStamps.add(event.productIds());
+        ScheduledExecutorService executor = sweeper;
+        if (executor != null) {
+            executor.execute(this::stampQueued);
+        }
+    }
+
+    // Stamps every queued write. A failed stamp must not fail the (committed) write: the rows stay pending
+    // and the sweep stamps them later.
+    public void stampQueued() {
+        synchronized (stampLock) {
+            Collection<Integer> productIds;
+            while ((productIds = queuedStamps.poll()) != null) {
+                try {
+                    long version = stampPending(productIds);
+                    if (version != 0) {
+                        localVersions.add(version);
+                    }
+                } catch (RuntimeException e) {
+                    loggingService.warn("Catalog version stamp failed, left for the sweep", Map.of(
+                        "productIds", productIds.toString(),
+                        "error", String.valueOf(e.getMessage())
+                    ));
+                }
+            }
+        }
+    }
+
+    // Gives the pending rows among productIds the next catalog version; returns it, or 0 when nothing was pending
+    public long stampPending(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        Long stamped = stampTransaction.execute(status -> {
+            // Row locks first, so a concurrent writer on the same product is waited for without holding the counter
+            List<Integer> products = productRepository.lockPendingIds(productIds);
+            List<Integer> tombstones = tombstoneRepository.lockPendingIds(productIds);
+            if (products.isEmpty() && tombstones.isEmpty()) {
+                return 0L;
+            }
+
+            if (catalogVersionRepository.increment() == 0) {
+                throw new IllegalStateException("catalog_version row is missing");
+            }
+            long version = catalogVersionRepository.findCurrentVersion().orElseThrow();
+            if (!products.isEmpty()) {
+                productRepository.stampChangeVersion(products, version);
+            }
+            if (!tombstones.isEmpty()) {
+                tombstoneRepository.stampChangeVersion(tombstones, version);
+                pruneTombstones(Instant.now());
+            }
+            return version;
+        });
+        return stamped == null ? 0 : stamped;
+    }
+
+    // Stamps rows left pending by a crashed instance or a failed stamp
+    public void sweepPending() {
+        try {
+            PageRequest batch = PageRequest.of(0, SWEEP_BATCH);
+            while (true) {
+                Set<Integer> pending = new LinkedHashSet<>(productRepository.findPendingIds(batch));
+                pending.addAll(tombstoneRepository.findPendingIds(batch));
+                // Nothing left, or a writer's own stamp got there first
+                if (pending.isEmpty() || stampPending(pending) == 0) {
+                    return;
+                }
+                loggingService.info("Pending catalog changes stamped", Map.of(
+                    "count", String.valueOf(pending.size())
+                ));
+            }
+        } catch (RuntimeException e) {
+            loggingService.warn("Catalog version sweep failed", Map.of(
+                "error", String.valueOf(e.getMessage())
+            ));
+        }
+    }
+
+    // ----------------------------- CHANGE FEED -----------------------------
+    // Publishes what other instances stamped since the last call. Versions stamped here are skipped when the
+    // whole range is local (the common case costs one read of the counter); a mixed range is published in
+    // full, and listeners treat a repeated event like any other. On failure the range is retried next time.
+    public void feedRemoteChanges() {
+        try {
+            long since = fedVersion;
+            long current = catalogVersionRepository.findCurrentVersion().orElse(0L);
+            if (current <= since) {
+                return;
+            }
+
+            NavigableSet<Long> local = localVersions.subSet(since, false, current, true);
+            if (local.size() < current - since) {
+                publishChangesBetween(since, current);
+            }
+            localVersions.headSet(current, true).clear();
+            fedVersion = current;
+        } catch (RuntimeException e) {
+            loggingService.warn("Catalog change feed failed", Map.of(
+                "since", String.valueOf(fedVersion),
+                "error", String.valueOf(e.getMessage())
+            ));
+        }
+    }
+
+    private void publishChangesBetween(long since, long upTo) {
+        int published = 0;
+        for (int page = 0; ; page++) {
+            PageRequest request = PageRequest.of(page, SWEEP_BATCH);
+            List<Integer> changed = productRepository.findIdsChangedBetween(since, upTo, request);
+            List<Integer> sold = productRepository.findIdsSoldBetween(since, upTo, request);
+            List<Integer> deleted = tombstoneRepository.findProductIdsChangedBetween(since, upTo, request);
+
+            publishRemote(ProductChangeEvent.Type.UPDATED, changed);
+            publishRemote(ProductChangeEvent.Type.SOLD, sold);
+            publishRemote(ProductChangeEvent.Type.DELETED, deleted);
+            published += changed.size() + sold.size() + deleted.size();
+
+            if (changed.size() < SWEEP_BATCH && sold.size() < SWEEP_BATCH && deleted.size() < SWEEP_BATCH) {
+                break;
+            }
+        }
+
+        loggingService.debug("Remote catalog changes published", Map.of(
+            "since", String.valueOf(since),
+            "version", String.valueOf(upTo),
+            "count", String.valueOf(published)
+        ));
+    }
+
+    // A created product is reported as updated: listeners load it either way
+    private void publishRemote(ProductChangeEvent.Type type, List<Integer> productIds) {
+        if (!productIds.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangeEvent.remote(type, productIds));
+        }
+    }
+
+    // Cursors older than the newest pruned tombstone can no longer see every deletion and get a reset.
+    // Runs inside a stamp, which already holds the counter row.
+    private void pruneTombstones(Instant now) {
+        tombstoneRepository.findMaxVersionDeletedBefore(now.minus(tombstoneRetention)).ifPresent(pruned -> {
+            int removed = tombstoneRepository.deleteUpToVersion(pruned);
+            catalogVersionRepository.advancePrunedVersion(pruned);
+            loggingService.info("Product tombstones pruned", Map.of(
+                "removed", String.valueOf(removed),
+                "prunedVersion", String.valueOf(pruned)
+            ));
+        });
+    }
+
+    // ----------------------------- READ -----------------------------
+    public CatalogChangesDTO getChangesSince(long since) {
+        // Writes this instance has already returned from must not wait for the stamp thread
+        stampQueued();
+
+        // Everything up to the committed counter is visible; later versions are picked up by the next call
+        long current = catalogVersionRepository.findCurrentVersion().orElse(0L);
+        long pruned = catalogVersionRepository.findPrunedVersion().orElse(0L);
+
+        // 0 is "no cursor yet": the client loads the full catalog and continues from the returned version
+        if (since == 0) {
+            return reset(since, current, "initial");
+        }
+        if (since > current || since < pruned) {
+            return reset(since, current, since > current ? "ahead" : "pruned");
+        }
+        if (since == current) {
+            return new CatalogChangesDTO(current, false, List.of(), List.of(), List.of());
+        }
+
+        // One row more than allowed tells us the client is better off reloading the catalog
+        PageRequest limit = PageRequest.of(0, maxChanges + 1);
+        List<ProductDTO> changed = productRepository.findProductDTOsChangedBetween(since, current, limit);
+        List<Integer> sold = productRepository.findIdsSoldBetween(since, current, limit);
+        List<Integer> deleted = tombstoneRepository.findProductIdsChangedBetween(since, current, limit);
+
+        if (changed.size() + sold.size() + deleted.size() > maxChanges) {
+            return reset(since, current, "too_many_changes");
+        }
+
+        loggingService.debug("Catalog changes fetched", Map.of(
+            "since", String.valueOf(since),
+            "version", String.valueOf(current),
+            "changed", String.valueOf(changed.size()),
+            "sold", String.valueOf(sold.size()),
+            "deleted", String.valueOf(deleted.size())
+        ));
+        return new CatalogChangesDTO(current, false, changed, sold, deleted);
+    }
+
+    private CatalogChangesDTO reset(long since, long current, String reason) {
+        loggingService.info("Catalog changes reset", Map.of(
+            "since", String.valueOf(since),
+            "version", String.valueOf(current),
+            "reason", reason
+        ));
+        return CatalogChangesDTO.reset(current);
+    }
+}
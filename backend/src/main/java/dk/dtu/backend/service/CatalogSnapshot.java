@@ -0,0 +1,128 @@
+package dk.dtu.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dk.dtu.backend.dto.responses.ProductDTO;
+
+/**
+ * Pre-encoded JSON payload of the available catalog, built once per catalog version
+ * and written to the response as-is. Carries a gzip variant and a strong ETag.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final String etag;
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private CatalogSnapshot(long version, String etag, byte[] json, byte[] gzip) {
+        this.version = version;
+        this.etag = etag;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public static CatalogSnapshot encode(long version, List<ProductDTO> products, ObjectMapper objectMapper) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            return new CatalogSnapshot(version, strongEtag(json), json, gzip(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode catalog snapshot", e);
+        }
+    }
+
+    public long getVersion() { return version; }
+
+    public String getEtag() { return etag; }
+
+    // Callers must not modify the returned arrays; they are shared between requests
+    public byte[] getJson() { return json; }
+
+    public byte[] getGzip() { return gzip; }
+
+    // If-None-Match uses weak comparison, so W/ prefixed tags match as well
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Accept-Encoding with q-values: "gzip;q=0" refuses gzip, and "*" covers gzip when it is not listed
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = qValue(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                wildcard = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    // ----------------------------- HELPER -----------------------------
+    // A malformed weight counts as q=0, so the plain JSON is served
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && Character.toLowerCase(param.charAt(0)) == 'q' && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String strongEtag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,43 @@
+package dk.dtu.backend.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory front for idempotent checkout, keyed by payment intent id.
+ * A checkout claims its intent before doing any work; replays of a finished checkout get the original
+ * order id straight from memory, and replays of one still running wait for its outcome instead of
+ * starting a second pipeline. The unique payment_intent_id column stays the source of truth.
+ */
+@Component
+public class CheckoutIdempotencyStore {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, CompletableFuture<Integer>> entries = new ConcurrentHashMap<>();
+
+    // Returns null when the caller now owns the intent and must run the checkout, otherwise the owner's outcome
+    public CompletableFuture<Integer> claim(String paymentIntent, CompletableFuture<Integer> attempt) {
+        if (entries.size() >= MAX_ENTRIES) {
+            evictCompleted();
+        }
+        return entries.putIfAbsent(paymentIntent, attempt);
+    }
+
+    // Failed checkouts may be retried with the same intent, so the claim is dropped
+    public void release(String paymentIntent, CompletableFuture<Integer> attempt) {
+        entries.remove(paymentIntent, attempt);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Finished checkouts can always be recovered from the database; running ones must stay
+    private void evictCompleted() {
+        entries.values().removeIf(CompletableFuture::isDone);
+    }
+}
@@ -0,0 +1,120 @@
+package dk.dtu.backend.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Typed meters for bids and orders. Every counter and timer is resolved once at startup,
+ * so the hot path is a field read plus an increment; durations come from Timer.Sample (nanoTime).
+ */
+@Component
+public class CheckoutMetrics {
+
+    public enum BidFailure {
+        INVALID_INPUT("invalid_input"),
+        PRODUCT_NOT_FOUND("product_not_found"),
+        PRODUCT_SOLD("product_sold"),
+        BID_TOO_LOW("bid_too_low");
+
+        private final String reason;
+
+        BidFailure(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    public enum OrderFailure {
+        INVALID_REQUEST("empty_cart | address | payment intent"),
+        VALIDATION_ERROR("validation_error"),
+        PRODUCT_SOLD("product_sold"),
+        PAYMENT_INTENT_CONFLICT("payment_intent_conflict"),
+        PAYMENT_UNAVAILABLE("payment_unavailable"),
+        SERVER_ERROR("server_error");
+
+        private final String reason;
+
+        OrderFailure(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter bidAccepted;
+    private final Map<BidFailure, Counter> bidRejected = new EnumMap<>(BidFailure.class);
+    private final Timer bidSuccessTimer;
+    private final Timer bidFailureTimer;
+
+    private final Counter orderPlaced;
+    private final Map<OrderFailure, Counter> orderFailed = new EnumMap<>(OrderFailure.class);
+    private final Timer orderSuccessTimer;
+    private final Timer orderFailureTimer;
+
+    @Autowired
+    public CheckoutMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.bidAccepted = outcomeCounter("checkout.bid", null);
+        for (BidFailure failure : BidFailure.values()) {
+            bidRejected.put(failure, outcomeCounter("checkout.bid", failure.reason));
+        }
+        this.bidSuccessTimer = latencyTimer("checkout.bid.duration", true);
+        this.bidFailureTimer = latencyTimer("checkout.bid.duration", false);
+
+        this.orderPlaced = outcomeCounter("checkout.order", null);
+        for (OrderFailure failure : OrderFailure.values()) {
+            orderFailed.put(failure, outcomeCounter("checkout.order", failure.reason));
+        }
+        this.orderSuccessTimer = latencyTimer("checkout.order.duration", true);
+        this.orderFailureTimer = latencyTimer("checkout.order.duration", false);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    // ----------------------------- BID -----------------------------
+    public void bidAccepted(Timer.Sample sample) {
+        bidAccepted.increment();
+        sample.stop(bidSuccessTimer);
+    }
+
+    public void bidRejected(BidFailure failure, Timer.Sample sample) {
+        bidRejected.get(failure).increment();
+        sample.stop(bidFailureTimer);
+    }
+
+    // ----------------------------- ORDER -----------------------------
+    public void orderPlaced(Timer.Sample sample) {
+        orderPlaced.increment();
+        sample.stop(orderSuccessTimer);
+    }
+
+    public void orderFailed(OrderFailure failure, Timer.Sample sample) {
+        orderFailed.get(failure).increment();
+        sample.stop(orderFailureTimer);
+    }
+
+    // ----------------------------- REGISTRATION -----------------------------
+    private Counter outcomeCounter(String name, String reason) {
+        Counter.Builder builder = Counter.builder(name).tag("success", String.valueOf(reason == null));
+        if (reason != null) {
+            builder.tag("reason", reason);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private Timer latencyTimer(String name, boolean success) {
+        return Timer.builder(name)
+                .tag("success", String.valueOf(success))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
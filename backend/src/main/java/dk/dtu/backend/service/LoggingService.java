@@ -4,38 +4,50 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 
+import net.logstash.logback.marker.Markers;
+
 @Service
 public class LoggingService {
 
     private static final Logger logger = LoggerFactory.getLogger("AppLogger");
 
     /**
-     * Log info message with optional key-value fields
+     * Log info message with optional key-value fields.
+     * Fields travel on the event as a logstash marker (no MDC writes) and are
+     * rendered as top-level JSON fields by the encoder.
      */
     public void info(String message, Map<String, String> fields) {
-        if (fields != null) fields.forEach(MDC::put);
-        logger.info(message);
-        if (fields != null) fields.keySet().forEach(MDC::remove);
+        if (logger.isInfoEnabled()) {
+            logger.info(Markers.appendEntries(orEmpty(fields)), message);
+        }
     }
 
     public void warn(String message, Map<String, String> fields) {
-        if (fields != null) fields.forEach(MDC::put);
-        logger.warn(message);
-        if (fields != null) fields.keySet().forEach(MDC::remove);
+        if (logger.isWarnEnabled()) {
+            logger.warn(Markers.appendEntries(orEmpty(fields)), message);
+        }
     }
 
     public void error(String message, Map<String, String> fields) {
-        if (fields != null) fields.forEach(MDC::put);
-        logger.error(message);
-        if (fields != null) fields.keySet().forEach(MDC::remove);
+        if (logger.isErrorEnabled()) {
+            logger.error(Markers.appendEntries(orEmpty(fields)), message);
+        }
     }
 
     public void debug(String message, Map<String, String> fields) {
-        if (fields != null) fields.forEach(MDC::put);
-        logger.debug(message);
-        if (fields != null) fields.keySet().forEach(MDC::remove);
+        if (logger.isDebugEnabled()) {
+            logger.debug(Markers.appendEntries(orEmpty(fields)), message);
+        }
+    }
+
+    // Lets hot paths skip building field maps that would be thrown away
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    private static Map<String, String> orEmpty(Map<String, String> fields) {
+        return fields != null ? fields : Map.of();
     }
 }
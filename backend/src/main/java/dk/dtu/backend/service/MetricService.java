@@ -1,15 +1,45 @@
 package dk.dtu.backend.service;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Records business and HTTP meters with bounded cardinality.
+ * Only whitelisted tag keys are kept, meter handles are cached, and each meter name is capped
+ * at a fixed number of series; anything beyond the cap is folded into an "other" series.
+ * Per-request identifiers (correlation ids, raw paths) never become tags.
+ * Hot checkout and auth paths use the typed {@link CheckoutMetrics} and {@link AuthMetrics} instead.
+ */
 @Service
 public class MetricService {
 
+    // Tag keys whose values come from a closed set (code constants, route templates, status classes)
+    private static final Set<String> ALLOWED_TAG_KEYS = Set.of(
+        "success", "reason", "result", "method", "route", "status", "outcome"
+    );
+
+    private static final int MAX_SERIES_PER_NAME = 64;
+    private static final String OVERFLOW_VALUE = "other";
+
+    private record MeterKey(String name, List<String> tags) {}
+
     private final MeterRegistry meterRegistry;
+    private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> seriesPerName = new ConcurrentHashMap<>();
 
     @Autowired
     public MetricService(MeterRegistry meterRegistry) {
@@ -18,12 +48,68 @@ public class MetricService {
 
     // Record success/failure events
     public void incrementCounter(String name, String... tags) {
-        meterRegistry.counter(name, tags).increment();
+        counter(name, tags).increment();
     }
 
     // Record duration in milliseconds
     public void recordDuration(String name, long millis, String... tags) {
-        meterRegistry.timer(name, tags).record(Duration.ofMillis(millis));
+        timer(name, tags).record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordDuration(String name, Duration duration, String... tags) {
+        timer(name, tags).record(duration);
+    }
+
+    // ----------------------------- HANDLES -----------------------------
+    public Counter counter(String name, String... tags) {
+        Counter counter = counters.get(new MeterKey(name, Arrays.asList(tags)));
+        if (counter != null) {
+            return counter;
+        }
+        List<String> safeTags = sanitize(name, tags);
+        return counters.computeIfAbsent(new MeterKey(name, safeTags),
+                key -> meterRegistry.counter(name, key.tags().toArray(String[]::new)));
     }
 
+    public Timer timer(String name, String... tags) {
+        Timer timer = timers.get(new MeterKey(name, Arrays.asList(tags)));
+        if (timer != null) {
+            return timer;
+        }
+        List<String> safeTags = sanitize(name, tags);
+        return timers.computeIfAbsent(new MeterKey(name, safeTags),
+                key -> meterRegistry.timer(name, key.tags().toArray(String[]::new)));
+    }
+
+    public MeterRegistry getRegistry() {
+        return meterRegistry;
+    }
+
+    // ----------------------------- CARDINALITY GUARD -----------------------------
+    private List<String> sanitize(String name, String... tags) {
+        List<String> kept = new ArrayList<>(tags.length);
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            if (ALLOWED_TAG_KEYS.contains(tags[i]) && tags[i + 1] != null) {
+                kept.add(tags[i]);
+                kept.add(tags[i + 1]);
+            }
+        }
+
+        if (counters.containsKey(new MeterKey(name, kept)) || timers.containsKey(new MeterKey(name, kept))) {
+            return List.copyOf(kept);
+        }
+        AtomicInteger series = seriesPerName.computeIfAbsent(name, n -> new AtomicInteger());
+        if (series.incrementAndGet() <= MAX_SERIES_PER_NAME) {
+            return List.copyOf(kept);
+        }
+
+        // Over the cap: keep the keys but collapse every value
+        series.decrementAndGet();
+        List<String> folded = new ArrayList<>(kept.size());
+        for (int i = 0; i < kept.size(); i += 2) {
+            folded.add(kept.get(i));
+            folded.add(OVERFLOW_VALUE);
+        }
+        return List.copyOf(folded);
+    }
 }
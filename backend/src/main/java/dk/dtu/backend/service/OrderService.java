@@ -1,12 +1,25 @@
 package dk.dtu.backend.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import dk.dtu.backend.dto.CartItemDTO;
 import dk.dtu.backend.persistence.entity.Address;
@@ -15,7 +28,6 @@ import dk.dtu.backend.persistence.entity.OrderItem;
 import dk.dtu.backend.persistence.entity.Product;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.OrderRepository;
-import jakarta.transaction.Transactional;
 
 @Service
 public class OrderService {
@@ -35,21 +47,77 @@ public class OrderService {
     @Autowired
     private LoggingService loggingService;
 
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private CheckoutIdempotencyStore idempotencyStore;
+
+    // Upper bound for a replay waiting on the original checkout of its payment intent
+    @Value("${app.checkout.replay-timeout:10s}")
+    private Duration replayTimeout = Duration.ofSeconds(10);
+
     // ----------------------------- PLACE ORDER -----------------------------
-    @Transactional
+    // Idempotent per payment intent: a replay returns the original order without calling the provider
+    // or opening a transaction, and a replay of a checkout still in progress waits (bounded) for its outcome.
+    // A replay only gets the order if it is the same request: same user and same products.
     public Order placeOrder(User user, List<CartItemDTO> cart, Address shippingAddress, String paymentIntent, String userEmail) {
 
+        CompletableFuture<Integer> attempt = new CompletableFuture<>();
+        CompletableFuture<Integer> previous = idempotencyStore.claim(paymentIntent, attempt);
+        if (previous != null) {
+            return replay(user, cart, paymentIntent, awaitOrderId(previous));
+        }
+
+        try {
+            Optional<Integer> persisted = orderRepository.findIdByPaymentIntentId(paymentIntent);
+            if (persisted.isPresent()) {
+                attempt.complete(persisted.get());
+                return replay(user, cart, paymentIntent, persisted.get());
+            }
+
+            Order order = checkout(user, cart, shippingAddress, paymentIntent);
+            attempt.complete(order.getId());
+            return order;
+        } catch (ProductAlreadySoldException | DataIntegrityViolationException e) {
+            // Another instance may have won with the same intent: its products are sold, or its order holds the key
+            Optional<Integer> winner = orderRepository.findIdByPaymentIntentId(paymentIntent);
+            if (winner.isPresent()) {
+                attempt.complete(winner.get());
+                return replay(user, cart, paymentIntent, winner.get());
+            }
+            idempotencyStore.release(paymentIntent, attempt);
+            attempt.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            idempotencyStore.release(paymentIntent, attempt);
+            attempt.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Payment is verified before any transaction starts, so a slow provider never holds a DB connection.
+    // The cart is resolved while the provider call is in flight.
+    private Order checkout(User user, List<CartItemDTO> cart, Address shippingAddress, String paymentIntent) {
+
         loggingService.info("Order placement process started", Map.of(
             "cartSize", String.valueOf(cart.size()),
             "paymentIntent", paymentIntent
         ));
         
-        // ------------ 1. Payment Validation ------------
-        loggingService.info("Starting payment validation", Map.of(
+        // ------------ 1. Payment Validation (async) ------------
+        loggingService.debug("Starting payment validation", Map.of(
             "paymentIntent", paymentIntent
         ));
 
-        boolean paymentValid = paymentService.validatePayment(paymentIntent);
+        CompletableFuture<Boolean> payment = paymentService.validatePaymentAsync(paymentIntent);
+
+        // ------------ 2. Resolve cart ------------
+        List<Integer> productIds = cart.stream().map(CartItemDTO::getProductId).toList();
+        Map<Integer, Product> products = productService.getProductsByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        boolean paymentValid = awaitPayment(payment);
         if (!paymentValid) {
             loggingService.error("Order placement failed - payment validation unsuccessful", Map.of(
                 "paymentIntent", paymentIntent,
@@ -59,21 +127,94 @@ public class OrderService {
             throw new IllegalArgumentException("Payment validation failed or expired");
         }
 
-        loggingService.info("Payment validation completed successfully", Map.of(
+        loggingService.debug("Payment validation completed successfully", Map.of(
             "paymentIntent", paymentIntent
         ));
 
-        // ------------ 2. Create order ------------
+        return transactionOperations.execute(status -> persistOrder(user, cart, productIds, products, shippingAddress, paymentIntent));
+    }
+
+    private Order replay(User user, List<CartItemDTO> cart, String paymentIntent, Integer orderId) {
+        Order order = orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new IllegalStateException("Order " + orderId + " for payment intent disappeared"));
+
+        // A known intent id alone must not reveal or claim someone else's order
+        Set<Integer> orderedIds = order.getOrderItems() == null ? Set.of() : order.getOrderItems().stream()
+                .map(item -> item.getProduct().getId())
+                .collect(Collectors.toSet());
+        Set<Integer> requestedIds = cart.stream().map(CartItemDTO::getProductId).collect(Collectors.toSet());
+        if (!Objects.equals(userId(order.getUser()), userId(user)) || !orderedIds.equals(requestedIds)) {
+            loggingService.warn("Order placement rejected - payment intent belongs to another request", Map.of(
+                "paymentIntent", paymentIntent,
+                "reason", "payment_intent_conflict"
+            ));
+            throw new PaymentIntentConflictException("Payment intent was already used for a different order");
+        }
+
+        loggingService.info("Order placement replayed for known payment intent", Map.of(
+            "paymentIntent", paymentIntent,
+            "orderId", String.valueOf(orderId)
+        ));
+        return order;
+    }
+
+    private static Integer userId(User user) {
+        return user == null ? null : user.getId();
+    }
+
+    // The original checkout's failure is rethrown to its replays unchanged; a stuck one is given up on
+    private Integer awaitOrderId(CompletableFuture<Integer> previous) {
+        try {
+            return previous.get(replayTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new PaymentIntentConflictException("A checkout for this payment intent is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for checkout", e);
+        }
+    }
+
+    // Rethrows the provider's failure (e.g. PaymentUnavailableException) as-is
+    private boolean awaitPayment(CompletableFuture<Boolean> payment) {
+        try {
+            return payment.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Short transactional stage: reserve products, resolve address, save order and items
+    private Order persistOrder(User user, List<CartItemDTO> cart, List<Integer> productIds,
+                               Map<Integer, Product> products, Address shippingAddress, String paymentIntent) {
+        // ------------ 3. Reserve products ------------
+        // Conditional update: only one concurrent checkout can flip a product to sold
+        productService.markSold(productIds);
+
+        loggingService.debug("Products marked as sold", Map.of(
+            "productIds", productIds.toString()
+        ));
+
+        // ------------ 4. Create order ------------
         Order order = new Order();
         order.setUser(user);
         order.setOrderDate(LocalDate.now());
         order.setOrderStatus("Paid");
+        order.setPaymentIntentId(paymentIntent);
 
-        loggingService.info("Order object created", Map.of(
+        loggingService.debug("Order object created", Map.of(
             "orderStatus", "Paid"
         ));
 
-        // ------------ 3. save address ------------
+        // ------------ 5. Resolve address ------------
+        // Identical shipping details reuse one row per user; guests get a new row
         Address orderAddress = new Address();
         orderAddress.setAddress1(shippingAddress.getAddress1());
         orderAddress.setAddress2(shippingAddress.getAddress2());
@@ -85,55 +226,37 @@ public class OrderService {
         orderAddress.setLastName(shippingAddress.getLastName());
         orderAddress.setFirstName(shippingAddress.getFirstName());
 
-        Address managedAddress = addressService.saveAddress(orderAddress);
+        // May be an unloaded reference; only its id is read here
+        Address managedAddress = addressService.internAddress(user, orderAddress);
         order.setAddress(managedAddress);
-        loggingService.info("New address created and linked to order", Map.of(
+        loggingService.debug("Address linked to order", Map.of(
                 "addressId", String.valueOf(managedAddress.getId()),
-                "city", managedAddress.getCity()
-        ));   
-
-        // ------------ 4. Save order ------------
-        Order savedOrder = orderRepository.save(order);
-        loggingService.info("Order saved to database", Map.of(
-            "orderId", String.valueOf(savedOrder.getId())
-        ));
-
-        // ------------ 5. Process order items ------------
-        loggingService.info("Starting to process order items", Map.of(
-            "orderId", String.valueOf(savedOrder.getId()),
-            "itemCount", String.valueOf(cart.size())
+                "city", shippingAddress.getCity()
         ));
 
+        // ------------ 6. Add order items ------------
+        // markSold has already rejected missing products, so every cart id was resolved
         for (CartItemDTO dto : cart) {
-            Product product = productService.getProductById(dto.getProductId())
-                    .orElseThrow(() -> {
-
-                        loggingService.error("Order item processing failed - product not found", Map.of(
-                            "orderId", String.valueOf(savedOrder.getId()),
-                            "productId", String.valueOf(dto.getProductId())
-                        ));
-
-                        return new IllegalArgumentException("Product not found: " + dto.getProductId());
-                    });
-
-            product.setSold(true);
-            productService.saveProduct(product); // updated ProductService method
+            Product product = products.get(dto.getProductId());
 
             OrderItem item = new OrderItem();
             item.setProduct(product);
             item.setPriceAtPurchase(dto.getBidPrice());
-            savedOrder.addOrderItem(item);
-
-            loggingService.info("Product added to order successfully", Map.of(
-                "orderId", String.valueOf(savedOrder.getId()),
-                "productId", String.valueOf(product.getId()),
-                "productTitle", product.getTitle(),
-                "bidPrice", String.valueOf(dto.getBidPrice())
-            ));
+            order.addOrderItem(item);
+
+            // Per-item detail only at debug; skip building the fields otherwise
+            if (loggingService.isDebugEnabled()) {
+                loggingService.debug("Product added to order successfully", Map.of(
+                    "productId", String.valueOf(product.getId()),
+                    "productTitle", product.getTitle(),
+                    "bidPrice", String.valueOf(dto.getBidPrice())
+                ));
+            }
         }
 
-        // ------------ 6. Save final order ------------
-        Order finalOrder = orderRepository.save(savedOrder);
+        // ------------ 7. Save order ------------
+        // Single save; items cascade and are batch-inserted at flush
+        Order finalOrder = orderRepository.save(order);
 
         loggingService.info("Order placement completed successfully", Map.of(
             "orderId", String.valueOf(finalOrder.getId()),
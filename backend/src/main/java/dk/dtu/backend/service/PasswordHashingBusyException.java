@@ -0,0 +1,11 @@
+package dk.dtu.backend.service;
+
+/**
+ * Thrown when every password-hashing worker is busy and the wait queue is full, e.g. during a login storm.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,188 @@
+package dk.dtu.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Password hashing with a configurable KDF. Stored hashes carry their encoder id and parameters
+ * ({bcrypt}$2a$10$..., {pbkdf2}...), so the cost can be raised at any time: older hashes, including
+ * the legacy unprefixed SHA-256 ones, still verify and are re-encoded on the user's next login.
+ * All hashing runs on a small dedicated pool so a login storm cannot occupy every request thread.
+ */
+@Service
+public class PasswordHashingService {
+
+    // Outcome of a login check; upgradedHash is non-null when the stored hash should be replaced
+    public record Verification(boolean matches, String upgradedHash) {}
+
+    private final DelegatingPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    // Stand-in for users without a hash, encoded once with the current settings
+    private volatile String dummyHash;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${app.password.algorithm:bcrypt}") String algorithm,
+                                  @Value("${app.password.bcrypt-strength:10}") int bcryptStrength,
+                                  @Value("${app.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+                                  @Value("${app.password.hashing-threads:0}") int hashingThreads,
+                                  @Value("${app.password.queue-capacity:64}") int queueCapacity) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", new BCryptPasswordEncoder(bcryptStrength),
+                "pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256),
+                "sha256", new LegacySha256PasswordEncoder());
+        if (!encoders.containsKey(algorithm) || "sha256".equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        }
+        this.encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes written before the switch have no {id} prefix
+        this.encoder.setDefaultPasswordEncoderForMatches(encoders.get("sha256"));
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.verifyTimer = hashTimer(meterRegistry, "verify");
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password hashing requests refused because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queued", executor, e -> e.getQueue().size())
+                .description("Password hashing requests waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    // ----------------------------- ENCODE -----------------------------
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    public String encode(String rawPassword) {
+        return await(encodeAsync(rawPassword));
+    }
+
+    // ----------------------------- VERIFY -----------------------------
+    // Match and, when needed, re-encode in one task so the caller waits for the pool only once.
+    // A null hash (unknown user, federated account) is matched against a dummy hash, so it costs as much
+    // as a wrong password and response times do not tell which emails have an account.
+    public CompletableFuture<Verification> verifyAsync(String rawPassword, String storedHash) {
+        return submit(() -> verifyTimer.record(() -> {
+            if (storedHash == null) {
+                encoder.matches(rawPassword, dummyHash());
+                return new Verification(false, null);
+            }
+            if (!encoder.matches(rawPassword, storedHash)) {
+                return new Verification(false, null);
+            }
+            return new Verification(true, encoder.upgradeEncoding(storedHash) ? encoder.encode(rawPassword) : null);
+        }));
+    }
+
+    public Verification verify(String rawPassword, String storedHash) {
+        return await(verifyAsync(rawPassword, storedHash));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // ----------------------------- HELPERS -----------------------------
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = encoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new PasswordHashingBusyException(
+                    "Password hashing busy: " + executor.getQueue().size() + " requests waiting", e));
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.duration")
+                .description("Time spent hashing on the password pool, excluding queueing")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    // Unsalted SHA-256 hex, kept only so existing accounts can still log in once and be upgraded
+    private static final class LegacySha256PasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256")
+                        .digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return MessageDigest.isEqual(encode(rawPassword).getBytes(StandardCharsets.US_ASCII),
+                    encodedPassword.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package dk.dtu.backend.service;
+
+/**
+ * Thrown when every payment call slot of this instance is busy. The provider was not called, so the
+ * circuit breaker does not count it against the provider.
+ */
+public class PaymentGatewayBusyException extends PaymentUnavailableException {
+
+    public PaymentGatewayBusyException(String message) {
+        super(message, null);
+    }
+}
@@ -0,0 +1,188 @@
+package dk.dtu.backend.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Non-blocking client for the payment provider's validation endpoint.
+ * One shared JDK HttpClient (HTTP/2 where the provider supports it, keep-alive otherwise),
+ * a cap on calls in flight, and bounded retries with full jitter for failures that are safe to repeat.
+ */
+@Component
+public class PaymentGatewayClient {
+
+    private final URI validationUri;
+    private final Duration readTimeout;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int maxConcurrentCalls;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer approvedTimer;
+    private final Timer declinedTimer;
+    private final Timer failedTimer;
+    private final Counter retries;
+    private final Counter saturated;
+
+    public PaymentGatewayClient(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.payment.validation-url}") String validationUrl,
+                                @Value("${app.payment.connect-timeout:2s}") Duration connectTimeout,
+                                @Value("${app.payment.read-timeout:5s}") Duration readTimeout,
+                                @Value("${app.payment.max-attempts:3}") int maxAttempts,
+                                @Value("${app.payment.retry-backoff:100ms}") Duration retryBackoff,
+                                @Value("${app.payment.max-concurrent-calls:64}") int maxConcurrentCalls) {
+        this.validationUri = URI.create(validationUrl);
+        this.readTimeout = readTimeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(maxConcurrentCalls);
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+
+        this.meterRegistry = meterRegistry;
+        this.approvedTimer = callTimer("approved");
+        this.declinedTimer = callTimer("declined");
+        this.failedTimer = callTimer("error");
+        this.retries = Counter.builder("payment.gateway.retries")
+                .description("Payment validation attempts repeated after a retryable failure")
+                .register(meterRegistry);
+        this.saturated = Counter.builder("payment.gateway.saturated")
+                .description("Payment validations refused because every call slot was busy")
+                .register(meterRegistry);
+        Gauge.builder("payment.gateway.in_flight", permits, p -> maxConcurrentCalls - p.availablePermits())
+                .description("Payment validation calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("payment.gateway.saturation", permits,
+                        p -> (double) (maxConcurrentCalls - p.availablePermits()) / maxConcurrentCalls)
+                .description("Share of payment call slots in use (1.0 = saturated)")
+                .register(meterRegistry);
+    }
+
+    // Completes with the provider's verdict, or exceptionally with PaymentUnavailableException
+    // (PaymentGatewayBusyException when this instance already has every call slot in use)
+    public CompletableFuture<Boolean> validate(String paymentToken) {
+        if (!permits.tryAcquire()) {
+            saturated.increment();
+            return CompletableFuture.failedFuture(
+                    new PaymentGatewayBusyException("Payment provider busy: " + maxConcurrentCalls + " calls in flight"));
+        }
+
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(validationUri)
+                    .timeout(readTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            objectMapper.writeValueAsString(Map.of("paymentToken", paymentToken))))
+                    .build();
+        } catch (JsonProcessingException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return send(request, 1)
+                .thenApply(this::isApproved)
+                .whenComplete((approved, error) -> {
+                    permits.release();
+                    sample.stop(error != null ? failedTimer : Boolean.TRUE.equals(approved) ? approvedTimer : declinedTimer);
+                });
+    }
+
+    // ----------------------------- RETRIES -----------------------------
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, int attempt) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    Throwable cause = unwrap(error);
+                    boolean retryable = cause != null ? isRetryable(cause) : isRetryable(response.statusCode());
+                    if (!retryable || attempt >= maxAttempts) {
+                        return cause != null
+                                ? CompletableFuture.<HttpResponse<String>>failedFuture(
+                                        new PaymentUnavailableException("Payment provider unreachable", cause))
+                                : CompletableFuture.completedFuture(response);
+                    }
+                    retries.increment();
+                    return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(
+                                    backoffMillis(attempt), TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> send(request, attempt + 1));
+                })
+                .thenCompose(next -> next);
+    }
+
+    // Full jitter: anywhere between zero and the exponential ceiling, so retries from many checkouts spread out
+    private long backoffMillis(int attempt) {
+        long ceiling = retryBackoffMillis << Math.min(attempt - 1, 10);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    // A read timeout means the provider is already slow; repeating it would only add load
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof HttpConnectTimeoutException) {
+            return true;
+        }
+        return error instanceof IOException && !(error instanceof HttpTimeoutException);
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // ----------------------------- RESPONSE -----------------------------
+    private boolean isApproved(HttpResponse<String> response) {
+        if (response.statusCode() != 200 || response.body() == null || response.body().isEmpty()) {
+            return false;
+        }
+        try {
+            JsonNode success = objectMapper.readTree(response.body()).path("success");
+            return success.isBoolean() && success.booleanValue();
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    private Timer callTimer(String outcome) {
+        return Timer.builder("payment.gateway.duration")
+                .description("Payment validation latency including retries")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
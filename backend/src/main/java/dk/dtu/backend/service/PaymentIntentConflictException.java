@@ -0,0 +1,12 @@
+package dk.dtu.backend.service;
+
+/**
+ * Thrown when a checkout reuses a payment intent id that belongs to a different order request
+ * (another user or another cart), or whose original checkout has not finished in time.
+ */
+public class PaymentIntentConflictException extends IllegalStateException {
+
+    public PaymentIntentConflictException(String message) {
+        super(message);
+    }
+}
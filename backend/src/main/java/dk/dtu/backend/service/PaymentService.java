@@ -1,57 +1,98 @@
 package dk.dtu.backend.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpStatus;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Handles payment validation logic with an external payment provider (mocked).
+ * Calls go through the shared PaymentGatewayClient behind a circuit breaker.
  */
 @Service
 public class PaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
 
-    //  Pipedream or mock payment validation endpoint
-    private static final String PAYMENT_VALIDATION_URL = "https://eobr8yycab7ojzy.m.pipedream.net";
+    private final PaymentGatewayClient gatewayClient;
+    private final CircuitBreaker circuitBreaker;
+
+    public PaymentService(PaymentGatewayClient gatewayClient,
+                          @Value("${app.payment.read-timeout:5s}") Duration readTimeout) {
+        this.gatewayClient = gatewayClient;
+
+        // Opens after half of the last 20 calls failed or ran slow; probes again after 30s.
+        // Local saturation says nothing about the provider, so it neither opens nor closes the circuit
+        this.circuitBreaker = CircuitBreaker.of("payment", CircuitBreakerConfig.custom()
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(50)
+                .slowCallDurationThreshold(readTimeout.dividedBy(2))
+                .slowCallRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .recordExceptions(PaymentUnavailableException.class)
+                .ignoreExceptions(PaymentGatewayBusyException.class)
+                .build());
+    }
 
     // Validates a payment token by contacting an external provider.
+    // Throws PaymentUnavailableException when the provider cannot be reached or the circuit is open.
     public boolean validatePayment(String paymentToken) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
-
-            logger.info("Validating payment token with external provider...");
-
-            // Send request to external payment provider
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    PAYMENT_VALIDATION_URL,
-                    Map.of("paymentToken", paymentToken),
-                    Map.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Object success = response.getBody().get("success");
-
-                boolean isValid = success instanceof Boolean && (Boolean) success;
-                if (isValid) {
-                    logger.info("Payment token validated successfully.");
-                } else {
-                    logger.warn("Payment token validation failed: {}", paymentToken);
-                }
-                return isValid;
+            return validatePaymentAsync(paymentToken).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PaymentUnavailableException unavailable) {
+                throw unavailable;
             }
-
-            logger.warn("Payment validation failed: unexpected response or empty body.");
-            return false;
-        } catch (Exception e) {
-            logger.error("Payment validation exception: {}", e.getMessage());
+            logger.error("Payment validation exception: {}", e.getCause().getMessage());
             return false;
         }
     }
+
+    // Non-blocking variant, so callers can do other work while the provider answers
+    public CompletableFuture<Boolean> validatePaymentAsync(String paymentToken) {
+        logger.info("Validating payment token with external provider...");
+
+        return circuitBreaker.executeCompletionStage(() -> gatewayClient.validate(paymentToken))
+                .toCompletableFuture()
+                .handle((isValid, error) -> {
+                    if (error == null) {
+                        if (isValid) {
+                            logger.info("Payment token validated successfully.");
+                        } else {
+                            logger.warn("Payment token validation failed: {}", paymentToken);
+                        }
+                        return isValid;
+                    }
+
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof CallNotPermittedException) {
+                        logger.warn("Payment validation skipped: circuit breaker is open.");
+                        throw new PaymentUnavailableException("Payment provider temporarily unavailable", cause);
+                    }
+                    if (cause instanceof PaymentGatewayBusyException busy) {
+                        logger.warn("Payment validation rejected: {}", busy.getMessage());
+                        throw busy;
+                    }
+                    if (cause instanceof PaymentUnavailableException unavailable) {
+                        logger.error("Payment provider unreachable: {}", unavailable.getCause() != null
+                                ? unavailable.getCause().toString() : unavailable.getMessage());
+                        throw unavailable;
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
 }
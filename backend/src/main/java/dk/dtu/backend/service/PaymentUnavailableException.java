@@ -0,0 +1,11 @@
+package dk.dtu.backend.service;
+
+/**
+ * Thrown when the payment provider times out, cannot be reached, or is cut off by the circuit breaker.
+ */
+public class PaymentUnavailableException extends RuntimeException {
+
+    public PaymentUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,21 @@
+package dk.dtu.backend.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Thrown when a checkout tries to sell a product that another checkout already sold.
+ */
+public class ProductAlreadySoldException extends IllegalStateException {
+
+    private final List<Integer> productIds;
+
+    public ProductAlreadySoldException(Collection<Integer> productIds) {
+        super("One or more products are no longer available: " + productIds);
+        this.productIds = List.copyOf(productIds);
+    }
+
+    public List<Integer> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,133 @@
+package dk.dtu.backend.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dk.dtu.backend.dto.responses.ProductDTO;
+
+/**
+ * In-memory read-through cache of the available catalog (unsold products mapped to DTOs).
+ * Reads are lock-free; loads and invalidations are serialized on the cache monitor.
+ * Kept current by ProductChangeEvents: this instance's writes right away, other instances' through the
+ * catalog version feed. An entry older than the max age is loaded again all the same, so the cached list
+ * and its ETag can never lag the database for longer than that, even if the feed stops.
+ */
+@Service
+public class ProductCatalogCache {
+
+    private static final String METRIC_NAME = "products.catalog.cache";
+
+    // Immutable view of the catalog tagged with the generation it was loaded in; loadedAt (System.nanoTime)
+    // drives the max age. The JSON encoding is produced on first request and then shared.
+    private static final class Entry {
+        private final long generation;
+        private final List<ProductDTO> products;
+        private final long loadedAt;
+        private volatile CatalogSnapshot encoded;
+
+        private Entry(long generation, List<ProductDTO> products, long loadedAt) {
+            this.generation = generation;
+            this.products = products;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    @Autowired
+    private MetricService metricService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.catalog.cache-max-age:1m}")
+    private Duration maxAge = Duration.ofMinutes(1);
+
+    private volatile Entry entry;
+    private volatile long generation;
+
+    // ----------------------------- READ -----------------------------
+    public List<ProductDTO> getAvailableProducts(Supplier<List<ProductDTO>> loader) {
+        return current(loader).products;
+    }
+
+    // Pre-serialized payload; only re-encoded after the product set changes
+    public CatalogSnapshot getAvailableSnapshot(Supplier<List<ProductDTO>> loader) {
+        Entry current = current(loader);
+        CatalogSnapshot encoded = current.encoded;
+        if (encoded == null) {
+            encoded = CatalogSnapshot.encode(current.generation, current.products, objectMapper);
+            current.encoded = encoded;
+            metricService.incrementCounter(METRIC_NAME, "result", "encode");
+        }
+        return encoded;
+    }
+
+    private Entry current(Supplier<List<ProductDTO>> loader) {
+        Entry current = entry;
+        if (current != null && current.generation == generation
+                && System.nanoTime() - current.loadedAt < maxAge.toNanos()) {
+            metricService.incrementCounter(METRIC_NAME, "result", "hit");
+            return current;
+        }
+
+        metricService.incrementCounter(METRIC_NAME, "result", "miss");
+
+        long loadGeneration = generation;
+        Entry loaded = new Entry(loadGeneration, List.copyOf(loader.get()), System.nanoTime());
+
+        synchronized (this) {
+            // Only publish if nothing changed while we were loading
+            if (generation == loadGeneration) {
+                entry = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    // ----------------------------- INVALIDATION -----------------------------
+    public synchronized void invalidate() {
+        generation++;
+        if (entry != null) {
+            entry = null;
+            metricService.incrementCounter(METRIC_NAME, "result", "eviction");
+        }
+    }
+
+    // Sold products are patched out of the cached list instead of dropping the whole catalog
+    public synchronized void markSold(Collection<Integer> productIds) {
+        Entry current = entry;
+        generation++;
+
+        if (current == null || current.generation != generation - 1) {
+            entry = null;
+            return;
+        }
+
+        Set<Integer> soldIds = Set.copyOf(productIds);
+        List<ProductDTO> remaining = current.products.stream()
+                .filter(dto -> !soldIds.contains(dto.getId()))
+                .toList();
+
+        // A patch is not a reload: the entry keeps its age
+        entry = new Entry(generation, remaining, current.loadedAt);
+        metricService.incrementCounter(METRIC_NAME, "result", "patch");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.type() == ProductChangeEvent.Type.SOLD) {
+            markSold(event.productIds());
+        } else {
+            invalidate();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dk.dtu.backend.service;
+
+import java.util.List;
+
+/**
+ * Published by ProductService whenever the product set changes.
+ * Listeners (e.g. the catalog cache) react after the surrounding transaction commits.
+ * Remote events describe writes made by another instance, picked up through the catalog version.
+ */
+public record ProductChangeEvent(Type type, List<Integer> productIds, boolean remote) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        SOLD,
+        DELETED
+    }
+
+    public ProductChangeEvent(Type type, List<Integer> productIds) {
+        this(type, productIds, false);
+    }
+
+    public static ProductChangeEvent of(Type type, Integer productId) {
+        return new ProductChangeEvent(type, List.of(productId));
+    }
+
+    public static ProductChangeEvent remote(Type type, List<Integer> productIds) {
+        return new ProductChangeEvent(type, productIds, true);
+    }
+}
@@ -0,0 +1,340 @@
+package dk.dtu.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent event stream of product changes (added, updated, sold, deleted), so clients no longer
+ * poll the whole catalog. Every change gets a sequence number; the last events are kept in a ring buffer
+ * so a reconnecting client (Last-Event-ID) receives what it missed, or a "reset" when it fell too far behind.
+ * Each event is encoded once and fanned out by a single broadcaster thread, which keeps sequence order.
+ * The broadcaster never writes to a socket: it only appends to each subscriber's queue, and a small
+ * sender pool drains those queues. A client counts as lagging once more events pile up behind a single
+ * write to it than the send queue allows; a backlog that only waits for a sender thread to pick it up does
+ * not count. A lagging client is disconnected and reconnects with Last-Event-ID like after any other drop,
+ * so one slow client never delays the rest.
+ * Changes made on other instances arrive as remote events from the catalog version feed, a feed interval
+ * later; sequence numbers and Last-Event-IDs are per instance, so a client that reconnects to another one
+ * gets a reset.
+ */
+@Service
+public class ProductEventStream {
+
+    // Wire format of one change; ids only, clients fetch details they care about
+    public record ProductDelta(long seq, String type, List<Integer> productIds) {}
+
+    private record BufferedEvent(long seq, Set<DataWithMediaType> frame) {}
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> pending;
+        // Set while a sender task owns this subscriber, so its frames go out one at a time and in order
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Set by the sender around each write; frames queued meanwhile are the client's own backlog
+        private volatile boolean writing;
+        private final AtomicInteger queuedDuringWrite = new AtomicInteger();
+        private volatile boolean closed;
+        // Broadcaster thread only; events at or below it were queued for this subscriber
+        private long lastSeq;
+
+        // Linked, so an idle subscriber does not allocate its whole capacity up front
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.pending = new LinkedBlockingQueue<>(capacity);
+        }
+    }
+
+    private static final Map<ProductChangeEvent.Type, String> EVENT_NAMES = Map.of(
+            ProductChangeEvent.Type.CREATED, "added",
+            ProductChangeEvent.Type.UPDATED, "updated",
+            ProductChangeEvent.Type.SOLD, "sold",
+            ProductChangeEvent.Type.DELETED, "deleted");
+
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final int maxSubscribers;
+    private final int queueSize;
+
+    // Ids are "<epoch>-<seq>"; the epoch changes on restart, so ids from a previous run trigger a reset
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final BufferedEvent[] ring;
+    private long lastSeq;
+    // Highest seq the broadcaster has fanned out; broadcaster thread only
+    private long broadcastSeq;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService broadcaster;
+    private final ExecutorService sender;
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("keepalive").build();
+
+    private final Counter published;
+    private final Counter resets;
+    private final Counter dropped;
+
+    public ProductEventStream(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.products.stream.buffer-size:1024}") int bufferSize,
+                              @Value("${app.products.stream.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${app.products.stream.timeout:30m}") Duration emitterTimeout,
+                              @Value("${app.products.stream.heartbeat:20s}") Duration heartbeatInterval,
+                              @Value("${app.products.stream.queue-size:256}") int queueSize,
+                              @Value("${app.products.stream.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.ring = new BufferedEvent[bufferSize];
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.queueSize = queueSize;
+
+        this.broadcaster = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-send-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keeps idle connections open through proxies and weeds out clients that went away
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        broadcaster.scheduleAtFixedRate(() -> broadcast(0, heartbeat), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        this.published = Counter.builder("products.stream.events")
+                .description("Product change events published to the stream")
+                .register(meterRegistry);
+        this.resets = Counter.builder("products.stream.resets")
+                .description("Reconnects that were too far behind and had to reload the catalog")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("products.stream.dropped")
+                .description("Connections closed because the client fell behind its send queue")
+                .register(meterRegistry);
+        Gauge.builder("products.stream.subscribers", subscribers, Set::size)
+                .description("Open product stream connections")
+                .register(meterRegistry);
+    }
+
+    // ----------------------------- PUBLISH -----------------------------
+    // After commit, so subscribers never hear about a change that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        publish(event.type(), event.productIds());
+    }
+
+    private synchronized void publish(ProductChangeEvent.Type type, List<Integer> productIds) {
+        long seq = ++lastSeq;
+        String name = EVENT_NAMES.get(type);
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(epoch + "-" + seq)
+                .name(name)
+                .data(encode(new ProductDelta(seq, name, productIds)), MediaType.APPLICATION_JSON)
+                .build();
+
+        BufferedEvent buffered = new BufferedEvent(seq, frame);
+        ring[(int) (seq % ring.length)] = buffered;
+        published.increment();
+        // Queued under the lock, so the broadcaster sees events in sequence order
+        broadcaster.execute(() -> broadcast(seq, frame));
+    }
+
+    // ----------------------------- SUBSCRIBE -----------------------------
+    // Returns null when the subscriber limit is reached
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+
+        SseEmitter emitter = createEmitter(emitterTimeoutMillis);
+        // Never more than the ring holds: beyond that the client could not resume anyway
+        Subscriber subscriber = new Subscriber(emitter, Math.max(queueSize, ring.length));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        boolean resuming = lastEventId != null && !lastEventId.isBlank();
+
+        broadcaster.execute(() -> {
+            try {
+                if (resuming) {
+                    resume(subscriber, lastEventId);
+                } else {
+                    // A fresh client gets everything not yet fanned out; read here, in broadcast order,
+                    // since events published meanwhile may still be queued on this thread
+                    subscriber.lastSeq = broadcastSeq;
+                }
+                subscribers.add(subscriber);
+            } catch (IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    // Runs on the broadcaster, before the subscriber receives live events
+    private void resume(Subscriber subscriber, String lastEventId) {
+        long after = parseSeq(lastEventId);
+        List<BufferedEvent> missed = new ArrayList<>();
+        long current;
+        synchronized (this) {
+            current = lastSeq;
+            if (after >= 0 && current - after <= ring.length) {
+                for (long seq = after + 1; seq <= current; seq++) {
+                    missed.add(ring[(int) (seq % ring.length)]);
+                }
+            } else {
+                missed = null;
+            }
+        }
+
+        if (missed == null) {
+            // Too far behind or from a previous run: the client reloads the catalog and continues from here
+            resets.increment();
+            enqueue(subscriber, SseEmitter.event()
+                    .id(epoch + "-" + current)
+                    .name("reset")
+                    .data(encode(new ProductDelta(current, "reset", List.of())), MediaType.APPLICATION_JSON)
+                    .build());
+        } else {
+            for (BufferedEvent event : missed) {
+                enqueue(subscriber, event.frame());
+            }
+        }
+        subscriber.lastSeq = current;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // ----------------------------- HELPERS -----------------------------
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // seq 0 is a heartbeat and goes to everyone; runs on the broadcaster and never blocks on a client
+    private void broadcast(long seq, Set<DataWithMediaType> frame) {
+        if (seq != 0) {
+            broadcastSeq = seq;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (seq != 0 && seq <= subscriber.lastSeq) {
+                continue;
+            }
+            enqueue(subscriber, frame);
+            if (seq != 0) {
+                subscriber.lastSeq = seq;
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        boolean lagging = subscriber.writing && subscriber.queuedDuringWrite.incrementAndGet() > queueSize;
+        if (lagging || !subscriber.pending.offer(frame)) {
+            // Lagging client: disconnect it and let it resume from its Last-Event-ID
+            if (subscribers.remove(subscriber)) {
+                dropped.increment();
+            }
+            subscriber.closed = true;
+            subscriber.pending.clear();
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Runs on the sender pool; a stalled write holds one sender thread until the container's write timeout,
+    // never the broadcaster, and too many events queued behind it meanwhile get this subscriber disconnected
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            if (subscriber.closed) {
+                // Completed here rather than by the broadcaster, which would wait for a write in progress
+                subscriber.emitter.complete();
+                return;
+            }
+            Set<DataWithMediaType> frame = subscriber.pending.poll();
+            if (frame == null) {
+                subscriber.draining.set(false);
+                // A frame queued after the poll but before the reset would otherwise wait for the next one
+                if (subscriber.pending.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            subscriber.queuedDuringWrite.set(0);
+            subscriber.writing = true;
+            try {
+                subscriber.emitter.send(frame);
+            } catch (IOException | IllegalStateException e) {
+                // The container reports the broken connection through onError as well
+                subscribers.remove(subscriber);
+                subscriber.closed = true;
+                subscriber.pending.clear();
+                return;
+            } finally {
+                subscriber.writing = false;
+            }
+        }
+    }
+
+    // -1 when the id is malformed, from a previous run, or ahead of this instance
+    private long parseSeq(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            long seq = Long.parseLong(lastEventId.substring(separator + 1));
+            return seq <= currentSeq() ? seq : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized long currentSeq() {
+        return lastSeq;
+    }
+
+    private String encode(ProductDelta delta) {
+        try {
+            return objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode product delta", e);
+        }
+    }
+}
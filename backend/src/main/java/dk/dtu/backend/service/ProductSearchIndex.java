@@ -0,0 +1,348 @@
+package dk.dtu.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import dk.dtu.backend.dto.responses.ArtistDTO;
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.dto.responses.SearchResultDTO;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository.ProductSearchView;
+import dk.dtu.backend.utils.DtoMapper;
+import dk.dtu.backend.utils.InvertedIndex;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process full-text search over unsold products (title, description, size, year and their artist's
+ * name, style and bio) and over artists, with style/currency/year facets and prefix autocomplete.
+ * Built once at startup, then kept current through ProductChangeEvents and ArtistChangeEvents,
+ * so a query never reaches the database. Products changed on other instances arrive through the catalog
+ * version feed; artists carry no version, so they are compared against the database periodically.
+ */
+@Service
+public class ProductSearchIndex {
+
+    public static final String FACET_STYLE = "style";
+    public static final String FACET_CURRENCY = "currency";
+    public static final String FACET_YEAR = "year";
+
+    // Facet values are kept as displayed; filters compare them case-insensitively
+    private record ProductDocument(ProductDTO product, String style, String currency, String year) {}
+
+    public record SearchFilters(String style, String currency, String year) {
+
+        public static final SearchFilters NONE = new SearchFilters(null, null, null);
+
+        boolean accepts(ProductDocument document) {
+            return matches(style, document.style())
+                    && matches(currency, document.currency())
+                    && matches(year, document.year());
+        }
+
+        private static boolean matches(String filter, String value) {
+            return filter == null || filter.isBlank() || filter.equalsIgnoreCase(value);
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    @Value("${app.search.artist-refresh-interval:5m}")
+    private Duration artistRefreshInterval = Duration.ofMinutes(5);
+
+    private ScheduledExecutorService refresher;
+
+    // Many concurrent searches, rare writes
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InvertedIndex productIndex = new InvertedIndex();
+    private final InvertedIndex artistIndex = new InvertedIndex();
+    private final Map<Integer, ProductDocument> products = new HashMap<>();
+    private final Map<Integer, ArtistDTO> artists = new HashMap<>();
+
+    // ----------------------------- SEARCH -----------------------------
+    public SearchResultDTO search(String query, SearchFilters filters, int limit) {
+        List<String> tokens = InvertedIndex.tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            int[] matches = productIndex.match(tokens);
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(FACET_STYLE, new HashMap<>());
+            facets.put(FACET_CURRENCY, new HashMap<>());
+            facets.put(FACET_YEAR, new HashMap<>());
+
+            // Ids grow with insertion order, so walking backwards lists the newest products first
+            List<ProductDTO> page = new ArrayList<>(Math.min(limit, matches.length));
+            int total = 0;
+            for (int i = matches.length - 1; i >= 0; i--) {
+                ProductDocument document = products.get(matches[i]);
+                if (document == null || !filters.accepts(document)) {
+                    continue;
+                }
+                total++;
+                count(facets.get(FACET_STYLE), document.style());
+                count(facets.get(FACET_CURRENCY), document.currency());
+                count(facets.get(FACET_YEAR), document.year());
+                if (page.size() < limit) {
+                    page.add(document.product());
+                }
+            }
+
+            int[] artistMatches = artistIndex.match(tokens);
+            List<ArtistDTO> artistPage = new ArrayList<>(Math.min(limit, artistMatches.length));
+            for (int i = 0; i < artistMatches.length && artistPage.size() < limit; i++) {
+                ArtistDTO artist = artists.get(artistMatches[i]);
+                if (artist != null) {
+                    artistPage.add(artist);
+                }
+            }
+
+            facets.replaceAll((name, counts) -> sortByCount(counts));
+            return new SearchResultDTO(query, total, page, artistPage, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Completes the last word of what the user has typed so far
+    public List<String> suggest(String prefix, int limit) {
+        List<String> tokens = InvertedIndex.tokenize(prefix);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String last = tokens.get(tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            List<String> completions = new ArrayList<>(productIndex.complete(last, limit));
+            for (String term : artistIndex.complete(last, limit)) {
+                if (completions.size() >= limit) {
+                    break;
+                }
+                if (!completions.contains(term)) {
+                    completions.add(term);
+                }
+            }
+            return completions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int productCount() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ----------------------------- INDEXING -----------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<ProductSearchView> productViews = productRepository.findSearchViews();
+        List<Artist> allArtists = artistRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            productIndex.clear();
+            artistIndex.clear();
+            products.clear();
+            artists.clear();
+            productViews.forEach(this::indexProduct);
+            allArtists.forEach(this::indexArtist);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        loggingService.info("Search index built", Map.of(
+            "productCount", String.valueOf(productViews.size()),
+            "artistCount", String.valueOf(allArtists.size()),
+            "termCount", String.valueOf(productIndex.termCount())
+        ));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startArtistRefresh() {
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-artist-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = artistRefreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshArtists, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        switch (event.type()) {
+            case SOLD, DELETED -> removeProducts(event.productIds());
+            case CREATED, UPDATED -> reloadProducts(productRepository.findSearchViewsByIds(event.productIds()),
+                    event.productIds());
+        }
+    }
+
+    // Artist text is part of every product document, so their products are re-indexed too
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtistChange(ArtistChangeEvent event) {
+        List<Artist> changed = artistRepository.findAllById(event.artistIds());
+        List<ProductSearchView> productViews = productRepository.findSearchViewsByArtistIds(event.artistIds());
+
+        lock.writeLock().lock();
+        try {
+            Set<Integer> missing = new HashSet<>(event.artistIds());
+            for (Artist artist : changed) {
+                indexArtist(artist);
+                missing.remove(artist.getId());
+            }
+            for (Integer artistId : missing) {
+                artistIndex.remove(artistId);
+                artists.remove(artistId);
+            }
+            productViews.forEach(this::indexProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Artists created, edited or deleted by another instance: re-indexed like a local ArtistChangeEvent
+    public void refreshArtists() {
+        try {
+            List<Artist> current = artistRepository.findAll();
+            Set<Integer> changed = new HashSet<>();
+
+            lock.readLock().lock();
+            try {
+                Set<Integer> gone = new HashSet<>(artists.keySet());
+                for (Artist artist : current) {
+                    gone.remove(artist.getId());
+                    if (!sameArtist(artists.get(artist.getId()), artist)) {
+                        changed.add(artist.getId());
+                    }
+                }
+                changed.addAll(gone);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (!changed.isEmpty()) {
+                onArtistChange(new ArtistChangeEvent(changed.stream().sorted().toList()));
+                loggingService.info("Search index artists refreshed", Map.of(
+                    "changed", String.valueOf(changed.size())
+                ));
+            }
+        } catch (RuntimeException e) {
+            loggingService.warn("Search index artist refresh failed", Map.of(
+                "error", String.valueOf(e.getMessage())
+            ));
+        }
+    }
+
+    private void reloadProducts(List<ProductSearchView> views, Collection<Integer> requestedIds) {
+        lock.writeLock().lock();
+        try {
+            // Requested but not returned: sold or deleted in the meantime
+            Set<Integer> missing = new HashSet<>(requestedIds);
+            for (ProductSearchView view : views) {
+                indexProduct(view);
+                missing.remove(view.getId());
+            }
+            missing.forEach(this::unindexProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeProducts(Collection<Integer> productIds) {
+        lock.writeLock().lock();
+        try {
+            productIds.forEach(this::unindexProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void indexProduct(ProductSearchView view) {
+        String year = view.getYearCreated() != null ? view.getYearCreated().toString() : null;
+        ProductDTO product = new ProductDTO(view.getId(), view.getTitle(), view.getImageUrl(), view.getSecretPrice(),
+                view.getCurrency(), view.getDescription(), view.getYearCreated(), view.getProductSize(),
+                view.getDateAdded(), view.getArtistFirstName(), view.getArtistLastName(), view.getStyle());
+
+        productIndex.put(view.getId(), InvertedIndex.tokenize(
+                view.getTitle(), view.getDescription(), view.getProductSize(), year,
+                view.getArtistFirstName(), view.getArtistLastName(), view.getStyle(), view.getArtistBio()));
+        products.put(view.getId(), new ProductDocument(product, view.getStyle(), view.getCurrency(), year));
+    }
+
+    private void unindexProduct(Integer productId) {
+        productIndex.remove(productId);
+        products.remove(productId);
+    }
+
+    private void indexArtist(Artist artist) {
+        artistIndex.put(artist.getId(), InvertedIndex.tokenize(
+                artist.getFirstName(), artist.getLastName(), artist.getStyle(), artist.getBio()));
+        artists.put(artist.getId(), DtoMapper.toArtistDTO(artist));
+    }
+
+    // ----------------------------- HELPERS -----------------------------
+    private static boolean sameArtist(ArtistDTO indexed, Artist artist) {
+        return indexed != null
+                && Objects.equals(indexed.getFirstName(), artist.getFirstName())
+                && Objects.equals(indexed.getLastName(), artist.getLastName())
+                && Objects.equals(indexed.getStyle(), artist.getStyle())
+                && Objects.equals(indexed.getBio(), artist.getBio())
+                && Objects.equals(indexed.getImageUrl(), artist.getImageUrl());
+    }
+
+    private static void count(Map<String, Integer> counts, String value) {
+        if (value != null && !value.isBlank()) {
+            counts.merge(value, 1, Integer::sum);
+        }
+    }
+
+    private static Map<String, Integer> sortByCount(Map<String, Integer> counts) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
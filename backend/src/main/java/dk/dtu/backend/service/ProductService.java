@@ -1,14 +1,29 @@
 package dk.dtu.backend.service;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import dk.dtu.backend.dto.ProductPageRequest;
+import dk.dtu.backend.dto.responses.CatalogChangesDTO;
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.dto.responses.ProductPageDTO;
+import dk.dtu.backend.persistence.entity.CatalogVersion;
 import dk.dtu.backend.persistence.entity.Product;
 import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.ProductSpecifications;
+import dk.dtu.backend.utils.DtoMapper;
+import dk.dtu.backend.utils.ProductCursor;
+import jakarta.transaction.Transactional;
 
 @Service
 public class ProductService {
@@ -19,43 +34,53 @@ public class ProductService {
     @Autowired
     private LoggingService loggingService;
 
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BidEngine bidEngine;
+
+    @Autowired
+    private CatalogChangeService catalogChangeService;
+
     // ----------------------------- BIDDING LOGIC -----------------------------
-   public boolean placeBid(Integer productId, double bidValue) {
-        loggingService.info("Bid placement process started", Map.of(
-            "productId", productId.toString(),
-            "bidValue", String.valueOf(bidValue)
-        ));
+    public boolean placeBid(Integer productId, double bidValue) {
+        return evaluateBid(productId, bidValue) == BidEngine.BidResult.ACCEPTED;
+    }
 
-        Optional<Product> optionalProduct = productRepository.findById(productId);
-        if (optionalProduct.isEmpty() || optionalProduct.get().isSold()) {
-            loggingService.warn("Bid placement failed - product not found", Map.of(
+    // Evaluated against the in-memory bid table; no database round trip for known products
+    public BidEngine.BidResult evaluateBid(Integer productId, double bidValue) {
+        BidEngine.BidResult result = bidEngine.evaluate(productId, bidValue);
+
+        if (result != BidEngine.BidResult.ACCEPTED) {
+            loggingService.warn("Bid placement failed", Map.of(
                 "productId", productId.toString(),
-                "reason", "product_not_found"
+                "bidValue", String.valueOf(bidValue),
+                "reason", result.name().toLowerCase()
             ));
-            return false;
         }
-
-        Product product = optionalProduct.get();
-        boolean success = bidValue >= product.getSecretPrice();
-
-        loggingService.warn("Bid placement failed - product already sold", Map.of(
-                "productId", productId.toString(),
-                "productTitle", product.getTitle(),
-                "reason", "product_sold"
-        ));
-
-        return success;
+        return result;
     }
 
     // ----------------------------- CREATE -----------------------------
+    @Transactional
     public Product saveProduct(Product product) {
         loggingService.info("Product update started", Map.of(
             "productId", String.valueOf(product.getId()),
             "action", "update_sold_status"
         ));
 
+        boolean isNew = product.getId() == null;
+
         try {
+            product.setChangeVersion(CatalogVersion.PENDING);
             Product saved = productRepository.save(product);
+            publishChange(isNew ? ProductChangeEvent.Type.CREATED
+                    : saved.isSold() ? ProductChangeEvent.Type.SOLD
+                    : ProductChangeEvent.Type.UPDATED, saved.getId());
             loggingService.info("Product update completed successfully", Map.of(
                 "productId", String.valueOf(saved.getId()),
                 "title", saved.getTitle(),
@@ -72,7 +97,41 @@ public class ProductService {
         }
     }
 
+    // All-or-nothing sale: fails if any product is already sold (or gone), rolling back the caller
+    @Transactional
+    public void markSold(Collection<Integer> productIds) {
+        Set<Integer> ids = new HashSet<>(productIds);
+        int updated = productRepository.markSoldIfAvailable(ids);
+
+        if (updated != ids.size()) {
+            // Only ids that exist can be "already sold"; the caller's transaction rolls back either way
+            Set<Integer> missing = new HashSet<>(ids);
+            missing.removeAll(productRepository.findExistingIds(ids));
+            if (!missing.isEmpty()) {
+                loggingService.warn("Product sale rejected - product not found", Map.of(
+                    "productIds", missing.toString(),
+                    "reason", "product_not_found"
+                ));
+                throw new IllegalArgumentException("Product not found: " + missing);
+            }
+
+            loggingService.warn("Product sale conflict - already sold", Map.of(
+                "productIds", ids.toString(),
+                "updated", String.valueOf(updated),
+                "reason", "product_sold"
+            ));
+            throw new ProductAlreadySoldException(ids);
+        }
+
+        eventPublisher.publishEvent(new ProductChangeEvent(ProductChangeEvent.Type.SOLD, List.copyOf(ids)));
+    }
+
     // ----------------------------- READ -----------------------------
+    // One round trip for the whole cart
+    public List<Product> getProductsByIds(Collection<Integer> ids) {
+        return productRepository.findAllById(ids);
+    }
+
     public Optional<Product> getProductById(Integer id) {
         Optional<Product> product = productRepository.findById(id);
         loggingService.info("Product lookup by ID completed", Map.of(
@@ -91,6 +150,83 @@ public class ProductService {
         return products;
     }
 
+    // Served from the in-memory catalog cache; reloaded only after the product set changes
+    public List<ProductDTO> getAvailableProductDTOs() {
+        return productCatalogCache.getAvailableProducts(this::loadAvailableProductDTOs);
+    }
+
+    public CatalogSnapshot getAvailableSnapshot() {
+        return productCatalogCache.getAvailableSnapshot(this::loadAvailableProductDTOs);
+    }
+
+    // Single constructor-expression query instead of loading entities and their artists
+    private List<ProductDTO> loadAvailableProductDTOs() {
+        List<ProductDTO> products = productRepository.findAvailableProductDTOs();
+        loggingService.info("Available products fetched successfully", Map.of(
+            "availableCount", String.valueOf(products.size())
+        ));
+        return products;
+    }
+
+    public List<ProductDTO> getAllProductDTOs() {
+        return productRepository.findAllProductDTOs();
+    }
+
+    // Keyset pagination: fetch one row more than requested to know whether another page exists
+    public ProductPageDTO getProductPage(ProductPageRequest request) {
+        String sortKey = request.getSort();
+        if (!List.of("dateAdded", "id", "yearCreated").contains(sortKey)) {
+            throw new IllegalArgumentException("Unsupported sort key: " + sortKey);
+        }
+        boolean descending = request.isDescending();
+        int size = request.getPageSize();
+
+        Specification<Product> spec = ProductSpecifications.fetchArtist();
+        if (request.isAvailableOnly()) {
+            spec = spec.and(ProductSpecifications.isSold(false));
+        }
+        if (request.getArtistId() != null) {
+            spec = spec.and(ProductSpecifications.hasArtist(request.getArtistId()));
+        }
+        if (request.getStyle() != null && !request.getStyle().isBlank()) {
+            spec = spec.and(ProductSpecifications.hasStyle(request.getStyle()));
+        }
+        if (request.getCurrency() != null && !request.getCurrency().isBlank()) {
+            spec = spec.and(ProductSpecifications.hasCurrency(request.getCurrency()));
+        }
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            ProductCursor cursor = ProductCursor.decode(request.getCursor(), sortKey);
+            spec = spec.and(switch (sortKey) {
+                case "dateAdded" -> ProductSpecifications.after(
+                        "dateAdded", cursor.dateValue(), cursor.id(), descending);
+                case "yearCreated" -> ProductSpecifications.after(
+                        "yearCreated", cursor.intValue(), cursor.id(), descending);
+                default -> ProductSpecifications.afterId(cursor.id(), descending);
+            });
+        }
+
+        // NULL keys sort lowest on MariaDB and H2 (first ascending, last descending); the keyset predicates
+        // follow the same order. No explicit NULLS FIRST/LAST: MariaDB would emulate it and lose the index.
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = sortKey.equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortKey).and(Sort.by(direction, "id"));
+
+        List<Product> rows = productRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<Product> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? ProductCursor.encode(sortKey, page.get(page.size() - 1)) : null;
+
+        loggingService.debug("Product page fetched", Map.of(
+            "sort", sortKey,
+            "size", String.valueOf(page.size()),
+            "hasMore", String.valueOf(hasMore)
+        ));
+
+        return new ProductPageDTO(DtoMapper.toProductDTOList(page), nextCursor, hasMore);
+    }
+
     public List<Product> getAllProducts() {
         List<Product> products = productRepository.findAll();
         return products;
@@ -101,7 +237,13 @@ public class ProductService {
         return products;
     }
 
+    // Delta sync for clients holding a catalog version cursor
+    public CatalogChangesDTO getChangesSince(long since) {
+        return catalogChangeService.getChangesSince(since);
+    }
+
     // ----------------------------- UPDATE -----------------------------
+    @Transactional
     public Optional<Product> updateProduct(Integer id, Product updated) {
         Optional<Product> optionalProduct = productRepository.findById(id);
         if (optionalProduct.isEmpty()) {
@@ -114,28 +256,43 @@ public class ProductService {
         existing.setCurrency(updated.getCurrency());
         existing.setSecretPrice(updated.getSecretPrice());
         existing.setArtist(updated.getArtist());
+        existing.setChangeVersion(CatalogVersion.PENDING);
 
         Product saved = productRepository.save(existing);
+        publishChange(ProductChangeEvent.Type.UPDATED, saved.getId());
         return Optional.of(saved);
     }
 
     // ----------------------------- DELETE -----------------------------
+    // Deletions leave a tombstone so delta-sync clients can drop the product
+    @Transactional
     public boolean deleteProduct(Integer id) {
         if (!productRepository.existsById(id)) {
             return false;
         }
 
         productRepository.deleteById(id);
+        catalogChangeService.recordDeletion(List.of(id));
+        publishChange(ProductChangeEvent.Type.DELETED, id);
         return true;
     }
 
+    @Transactional
     public void deleteProductsByArtist(Integer artistId) {
         List<Product> products = productRepository.findByArtistId(artistId);
         if (products.isEmpty()) {
             return;
         }
 
+        List<Integer> ids = products.stream().map(Product::getId).toList();
         productRepository.deleteAll(products);
+        catalogChangeService.recordDeletion(ids);
+        eventPublisher.publishEvent(new ProductChangeEvent(ProductChangeEvent.Type.DELETED, ids));
+    }
+
+    // ----------------------------- HELPER -----------------------------
+    private void publishChange(ProductChangeEvent.Type type, Integer productId) {
+        eventPublisher.publishEvent(ProductChangeEvent.of(type, productId));
     }
 
 }
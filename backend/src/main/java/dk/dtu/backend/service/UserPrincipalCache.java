@@ -0,0 +1,132 @@
+package dk.dtu.backend.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Email -> login principal (id, account type, password hash), so authentication does not hit the
+ * users table on every attempt. Unknown emails are remembered for a short time as well, which absorbs
+ * credential-stuffing bursts for addresses that do not exist. Writers must call invalidate().
+ */
+@Component
+public class UserPrincipalCache {
+
+    public record UserPrincipal(Integer id, String email, String accountType, String passwordHash) {
+
+        static UserPrincipal of(User user) {
+            return new UserPrincipal(user.getId(), user.getEmail(), user.getAccountType(), user.getPassword());
+        }
+    }
+
+    // principal == null marks a cached miss
+    private record Entry(UserPrincipal principal, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a lookup that raced with a write does not cache what it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.auth.principal-cache.ttl:10m}") Duration ttl,
+                              @Value("${app.auth.principal-cache.negative-ttl:30s}") Duration negativeTtl,
+                              @Value("${app.auth.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.maxEntries = maxEntries;
+
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.negativeHits = lookupCounter(meterRegistry, "negative_hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    // Known users are shared by every casing/whitespace variant of their email. A miss only answers the exact
+    // string that was looked up, so a miss for " Victim@x.com" can never hide the real "victim@x.com".
+    public Optional<UserPrincipal> find(String email) {
+        String key = normalize(email);
+        long now = System.nanoTime();
+
+        Entry known = entries.get(key);
+        if (known != null && known.principal() != null && !known.isExpired(now)) {
+            hits.increment();
+            return Optional.of(known.principal());
+        }
+        Entry miss = entries.get(email);
+        if (miss != null && miss.principal() == null && !miss.isExpired(now)) {
+            negativeHits.increment();
+            return Optional.empty();
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        UserPrincipal principal = userRepository.findByEmail(email).map(UserPrincipal::of).orElse(null);
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        String loadedKey = principal != null ? key : email;
+        Entry loaded = new Entry(principal, now + (principal != null ? ttlNanos : negativeTtlNanos));
+        entries.put(loadedKey, loaded);
+        if (invalidations.get() != generation) {
+            entries.remove(loadedKey, loaded);
+        }
+        return Optional.ofNullable(principal);
+    }
+
+    // Call after any change to the user row, including creating it (drops cached misses for every variant)
+    public void invalidate(String email) {
+        if (email != null) {
+            String key = normalize(email);
+            entries.keySet().removeIf(cached -> normalize(cached).equals(key));
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops expired entries first; if still full, starts over like the JWT cache
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.principal.cache")
+                .description("User principal lookups by email, by cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
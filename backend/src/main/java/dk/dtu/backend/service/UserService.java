@@ -19,6 +19,9 @@ public class UserService {
     @Autowired
     private LoggingService loggingService;
 
+    @Autowired
+    private UserPrincipalCache principalCache;
+
     // ----------------------------- CREATE -----------------------------
    // user would be registered in the authController
 
@@ -32,8 +35,9 @@ public class UserService {
         return userOpt;
     }
 
+    // Unknown emails are answered from the principal cache; known ones load the full entity by id
     public Optional<User> getUserByEmail(String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = getUserEntity(email);
         loggingService.info("Fetched user by email", Map.of(
             "email", email,
             "found", String.valueOf(userOpt.isPresent())
@@ -51,7 +55,7 @@ public class UserService {
 
     // ----------------------------- UPDATE -----------------------------
     public Optional<User> updateUser(String email, User updatedUser) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = getUserEntity(email);
         if (userOpt.isEmpty()) {
             loggingService.warn("Attempted to update non-existing user", Map.of("email", email));
             return Optional.empty();
@@ -66,6 +70,7 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(existingUser);
+        principalCache.invalidate(email);
         loggingService.info("User updated successfully", Map.of(
             "email", email,
             "action", "update"
@@ -76,17 +81,23 @@ public class UserService {
 
     // ----------------------------- DELETE -----------------------------
     public boolean deleteUser(String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = getUserEntity(email);
         if (userOpt.isEmpty()) {
             loggingService.warn("Attempted to delete non-existing user", Map.of("email", email));
             return false;
         }
 
         userRepository.delete(userOpt.get());
+        principalCache.invalidate(email);
         loggingService.info("User deleted successfully", Map.of(
             "email", email,
             "action", "delete"
         ));
         return true;
     }
+
+    // ----------------------------- HELPERS -----------------------------
+    private Optional<User> getUserEntity(String email) {
+        return principalCache.find(email).flatMap(principal -> userRepository.findById(principal.id()));
+    }
 }
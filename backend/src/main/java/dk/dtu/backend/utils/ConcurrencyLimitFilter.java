@@ -0,0 +1,77 @@
+package dk.dtu.backend.utils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import dk.dtu.backend.service.MetricService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps in-flight requests when Tomcat runs on virtual threads. Virtual threads remove the
+ * thread-pool limit, so this keeps a burst from queueing thousands of requests on the JDBC pool.
+ * Requests that cannot get a permit within the queue timeout are rejected with 503.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MetricService metricService;
+
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+
+    public ConcurrencyLimitFilter(@Value("${app.web.max-concurrent-requests:200}") int maxConcurrentRequests,
+                                  @Value("${app.web.queue-timeout:2s}") Duration queueTimeout) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.queueTimeoutMillis = queueTimeout.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks and scrapes must still answer under load
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            metricService.incrementCounter("http.requests.rejected", "reason", "concurrency_limit");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
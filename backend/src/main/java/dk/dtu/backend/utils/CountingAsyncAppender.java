@@ -0,0 +1,34 @@
+package dk.dtu.backend.utils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback AsyncAppender that never blocks the caller and counts the events it drops,
+ * either because the queue is full or because INFO and below are shed under pressure.
+ * The count is exported as the logging.events.dropped metric (see MetricsConfig).
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public CountingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        // Same checks AsyncAppenderBase makes before offering; counts are approximate under contention
+        if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+            DROPPED.increment();
+        }
+        super.append(event);
+    }
+
+    public static long droppedEvents() {
+        return DROPPED.sum();
+    }
+}
@@ -21,9 +21,9 @@ public class DtoMapper {
         dto.setSecretPrice(product.getSecretPrice());
         dto.setCurrency(product.getCurrency());
         dto.setDescription(product.getDescription());
-        dto.setYearCreated(product.getYearCreated().toString());
+        dto.setYearCreated(product.getYearCreated() != null ? product.getYearCreated().toString() : null);
         dto.setProductSize(product.getProductSize());
-        dto.setDateAdded(product.getDateAdded().toString());
+        dto.setDateAdded(product.getDateAdded() != null ? product.getDateAdded().toString() : null);
 
         // Flatten artist info
         if (product.getArtist() != null) {
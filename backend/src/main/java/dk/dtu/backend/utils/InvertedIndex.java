@@ -0,0 +1,223 @@
+package dk.dtu.backend.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Term -> sorted int[] of document ids. Terms live in a sorted map so a prefix is a sub-map range,
+ * which serves both search-as-you-type and autocomplete. Not thread-safe: callers guard reads and writes.
+ */
+public class InvertedIndex {
+
+    // A one-letter prefix must not turn a query into a scan of the whole vocabulary
+    public static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int[] EMPTY = new int[0];
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    // What each document was indexed under, so it can be removed without scanning every posting list
+    private final Map<Integer, String[]> documentTerms = new HashMap<>();
+
+    // ----------------------------- WRITE -----------------------------
+    public void put(int documentId, List<String> tokens) {
+        remove(documentId);
+        String[] distinct = new LinkedHashSet<>(tokens).toArray(String[]::new);
+        for (String term : distinct) {
+            terms.computeIfAbsent(term, t -> new Postings()).add(documentId);
+        }
+        documentTerms.put(documentId, distinct);
+    }
+
+    public void remove(int documentId) {
+        String[] previous = documentTerms.remove(documentId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(documentId) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    public void clear() {
+        terms.clear();
+        documentTerms.clear();
+    }
+
+    // ----------------------------- READ -----------------------------
+    // Documents containing every token, ascending; the last token also matches as a prefix
+    public int[] match(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return EMPTY;
+        }
+        List<int[]> lists = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean last = i == tokens.size() - 1;
+            int[] ids = last ? prefixPostings(tokens.get(i)) : exactPostings(tokens.get(i));
+            if (ids.length == 0) {
+                return EMPTY;
+            }
+            lists.add(ids);
+        }
+        // Smallest list first keeps every intersection step bounded by the rarest term
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    // Indexed terms starting with the prefix, most frequent first
+    public List<String> complete(String prefix, int limit) {
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Map.Entry<String, Postings>> candidates = new ArrayList<>(prefixRange(prefix).entrySet());
+        candidates.sort(Comparator.<Map.Entry<String, Postings>>comparingInt(e -> e.getValue().size).reversed()
+                .thenComparing(Map.Entry::getKey));
+        return candidates.stream().limit(limit).map(Map.Entry::getKey).toList();
+    }
+
+    public boolean contains(int documentId) {
+        return documentTerms.containsKey(documentId);
+    }
+
+    public int documentCount() {
+        return documentTerms.size();
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    // ----------------------------- TOKENIZER -----------------------------
+    // Lower-cased with accents folded to the base letter, split on anything that is not a letter or digit
+    public static List<String> tokenize(String... texts) {
+        List<String> tokens = new ArrayList<>();
+        for (String text : texts) {
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+            for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    // ----------------------------- HELPERS -----------------------------
+    private int[] exactPostings(String term) {
+        Postings postings = terms.get(term);
+        return postings == null ? EMPTY : postings.toArray();
+    }
+
+    private int[] prefixPostings(String prefix) {
+        NavigableMap<String, Postings> range = prefixRange(prefix);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue().toArray();
+        }
+        int total = 0;
+        List<Postings> expanded = new ArrayList<>();
+        for (Postings postings : range.values()) {
+            if (expanded.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expanded.add(postings);
+            total += postings.size;
+        }
+        int[] union = new int[total];
+        int offset = 0;
+        for (Postings postings : expanded) {
+            System.arraycopy(postings.ids, 0, union, offset, postings.size);
+            offset += postings.size;
+        }
+        Arrays.sort(union);
+        return distinct(union);
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] distinct(int[] sorted) {
+        if (sorted.length == 0) {
+            return sorted;
+        }
+        int n = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    // Sorted, duplicate-free ids in a growable primitive array; no boxing per posting
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dk.dtu.backend.utils;
+
+/**
+ * Claims of a verified JWT, extracted once per token.
+ */
+public record JwtPrincipal(String email, String role, int userId, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -1,10 +1,19 @@
 package dk.dtu.backend.utils;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,6 +28,13 @@ public class JwtUtil {
     private static final Key KEY = Keys.hmacShaKeyFor(JWT_SECRET.getBytes());
 
     private static final long JWT_EXPIRATION_MS = 24 * 60 * 60 * 1000; // 24h
+
+    // Parsers are immutable and thread-safe, so one instance serves every request
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(KEY).build();
+
+    // Verified tokens by SHA-256 of the token (raw tokens are never kept); entries die with the token
+    private static final int MAX_CACHED_TOKENS = 10_000;
+    private static final Map<String, JwtPrincipal> VERIFIED = new ConcurrentHashMap<>();
      
 
     public static String generateToken(String email, String role, int userId) {
@@ -32,46 +48,82 @@ public class JwtUtil {
                 .compact();
     }
 
-    public static boolean validateToken(String token) {
+    // Verifies the signature once per token; repeat calls with the same token are served from the cache
+    public static Optional<JwtPrincipal> parse(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+        JwtPrincipal cached = VERIFIED.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            VERIFIED.remove(key);
+        }
+
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            Claims claims = PARSER.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            JwtPrincipal principal = new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("userId", Integer.class),
+                    expiration != null ? expiration.getTime() : now + JWT_EXPIRATION_MS);
+
+            if (VERIFIED.size() >= MAX_CACHED_TOKENS) {
+                evict(now);
+            }
+            VERIFIED.put(key, principal);
+            return Optional.of(principal);
         } catch (ExpiredJwtException e) {
             System.out.println("JWT token expired: " + e.getMessage());
-            return false;
+            return Optional.empty();
         } catch (Exception e) {
             System.out.println("JWT token invalid: " + e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
+    public static boolean validateToken(String token) {
+        return parse(token).isPresent();
+    }
+
     public static String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return require(token).email();
     }
 
     public static String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return (String) claims.get("role");
+        return require(token).role();
     }
 
     public static int getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return (int) claims.get("userId");
+        return require(token).userId();
+    }
+
+    // -----------------------
+    // Helpers
+    // -----------------------
+    private static JwtPrincipal require(String token) {
+        return parse(token).orElseThrow(() -> new JwtException("Invalid or expired JWT token"));
+    }
+
+    // Drops expired tokens first; if the cache is still full, starts over rather than tracking recency
+    private static void evict(long now) {
+        VERIFIED.values().removeIf(principal -> principal.isExpired(now));
+        if (VERIFIED.size() >= MAX_CACHED_TOKENS) {
+            VERIFIED.clear();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
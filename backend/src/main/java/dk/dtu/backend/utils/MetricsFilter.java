@@ -1,22 +1,55 @@
 package dk.dtu.backend.utils;
 
 import dk.dtu.backend.service.MetricService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+/**
+ * Counts and times every request by route template (e.g. /api/products/{id}), method and status class.
+ * Raw URIs are never used as tags, so path variables and probing requests cannot add series.
+ * The series are enumerated once at startup from the request mappings (route x declared methods x 2xx/4xx/5xx),
+ * so the set is fixed before the first request; a request outside it (e.g. an implicit HEAD or OPTIONS, or a
+ * rare 1xx/3xx response) goes through MetricService's capped registration instead.
+ */
 @Component
 public class MetricsFilter extends OncePerRequestFilter {
 
+    private static final String UNMAPPED_ROUTE = "UNMAPPED";
+    // The API answers with these; 1xx and 3xx are rare enough to register on first use
+    private static final List<String> STATUS_CLASSES = List.of("2xx", "4xx", "5xx");
+    private static final Set<String> ANY_METHOD = Set.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+    private record RouteMeters(Counter requests, Timer duration) {}
+
     @Autowired
     private MetricService metricService;
 
+    // Replaced once at startup, then only read
+    private volatile Map<String, RouteMeters> registered = Map.of();
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -24,17 +57,86 @@ public class MetricsFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
-   
+        long start = System.nanoTime();
+
         try {
             filterChain.doFilter(request, response);
         } finally {
-            long duration = System.currentTimeMillis() - start;
-            String path = request.getRequestURI();
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            String route = routeOf(request);
             String method = request.getMethod();
+            String status = statusClass(response.getStatus());
 
-            metricService.incrementCounter("http.requests.total", "path", path, "method", method);
-            metricService.recordDuration("http.request.duration", duration);
+            RouteMeters meters = registered.get(key(route, method, status));
+            if (meters != null) {
+                meters.requests().increment();
+                meters.duration().record(duration);
+            } else {
+                metricService.incrementCounter("http.requests.total", "route", route, "method", method, "status", status);
+                metricService.recordDuration("http.request.duration", duration, "route", route, "method", method, "status", status);
+            }
         }
     }
+
+    // ----------------------------- REGISTRATION -----------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerMappedRoutes(ApplicationReadyEvent event) {
+        // Controllers and actuator endpoints alike
+        Map<String, Set<String>> methodsByRoute = new TreeMap<>();
+        for (RequestMappingInfoHandlerMapping mapping : event.getApplicationContext()
+                .getBeansOfType(RequestMappingInfoHandlerMapping.class).values()) {
+            for (RequestMappingInfo info : mapping.getHandlerMethods().keySet()) {
+                Set<RequestMethod> declared = info.getMethodsCondition().getMethods();
+                for (String route : info.getPatternValues()) {
+                    Set<String> methods = methodsByRoute.computeIfAbsent(route, r -> new TreeSet<>());
+                    if (declared.isEmpty()) {
+                        methods.addAll(ANY_METHOD);
+                    } else {
+                        declared.forEach(method -> methods.add(method.name()));
+                    }
+                }
+            }
+        }
+        registerRoutes(methodsByRoute);
+    }
+
+    // Registers every route/method/status-class series up front; unmatched requests count under UNMAPPED
+    public void registerRoutes(Map<String, Set<String>> methodsByRoute) {
+        MeterRegistry meterRegistry = metricService.getRegistry();
+        Map<String, Set<String>> routes = new HashMap<>(methodsByRoute);
+        routes.put(UNMAPPED_ROUTE, ANY_METHOD);
+
+        Map<String, RouteMeters> meters = new HashMap<>();
+        routes.forEach((route, methods) -> {
+            for (String method : methods) {
+                for (String status : STATUS_CLASSES) {
+                    meters.put(key(route, method, status), new RouteMeters(
+                            meterRegistry.counter("http.requests.total", "route", route, "method", method, "status", status),
+                            meterRegistry.timer("http.request.duration", "route", route, "method", method, "status", status)));
+                }
+            }
+        });
+        registered = Map.copyOf(meters);
+    }
+
+    // ----------------------------- HELPERS -----------------------------
+    private static String key(String route, String method, String status) {
+        return route + ' ' + method + ' ' + status;
+    }
+
+    // The dispatcher sets the matched pattern once a handler is found; 404s and static misses have none
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMAPPED_ROUTE;
+    }
+
+    private static String statusClass(int status) {
+        return switch (status / 100) {
+            case 1 -> "1xx";
+            case 2 -> "2xx";
+            case 3 -> "3xx";
+            case 4 -> "4xx";
+            default -> "5xx";
+        };
+    }
 }
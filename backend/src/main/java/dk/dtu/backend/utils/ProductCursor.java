@@ -0,0 +1,61 @@
+package dk.dtu.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import dk.dtu.backend.persistence.entity.Product;
+
+/**
+ * Opaque keyset cursor for catalog paging: the sort key, its value and the id
+ * of the last row on the previous page, encoded as URL-safe base64.
+ * A null sort value (date_added and year_created are nullable) is encoded as "~" and decodes to null.
+ */
+public record ProductCursor(String sort, String value, int id) {
+
+    private static final String NULL_VALUE = "~";
+
+    public static String encode(String sort, Product last) {
+        Object key = switch (sort) {
+            case "dateAdded" -> last.getDateAdded();
+            case "yearCreated" -> last.getYearCreated();
+            default -> "";
+        };
+        String value = key == null ? NULL_VALUE : key.toString();
+        String raw = sort + "|" + value + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor, String expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(expectedSort)) {
+                throw new IllegalArgumentException("Cursor does not match sort " + expectedSort);
+            }
+            String value = NULL_VALUE.equals(parts[1]) ? null : parts[1];
+            return new ProductCursor(parts[0], value, Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and base64 errors are IllegalArgumentExceptions too
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Typed sort values; a tampered value is an invalid cursor, not a server error
+    public LocalDate dateValue() {
+        try {
+            return value == null ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public Integer intValue() {
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
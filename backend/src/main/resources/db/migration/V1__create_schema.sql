@@ -0,0 +1,140 @@
+-- =====================================
+-- Baseline schema. Mirrors the JPA mappings (Hibernate runs with ddl-auto=validate);
+-- every index is declared here and on the entity so tests on H2 get the same ones.
+-- =====================================
+
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+
+-- =====================================
+-- USERS / ARTISTS
+-- =====================================
+CREATE TABLE users (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    account_type VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    -- Login and registration look users up by email
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE artists (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    user_id INTEGER NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    bio VARCHAR(255),
+    style VARCHAR(255),
+    image_url VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_artists_user UNIQUE (user_id),
+    CONSTRAINT fk_artists_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_artists_style ON artists (style);
+
+-- =====================================
+-- PRODUCTS
+-- =====================================
+CREATE TABLE products (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255) NOT NULL,
+    secret_price DOUBLE NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    image_url VARCHAR(255) NOT NULL,
+    sold BIT(1) NOT NULL,
+    artist_id INTEGER NOT NULL,
+    description VARCHAR(1024),
+    year_created INTEGER,
+    product_size VARCHAR(255),
+    date_added DATE,
+    version BIGINT DEFAULT 0 NOT NULL,
+    change_version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_products_artist FOREIGN KEY (artist_id) REFERENCES artists (id)
+);
+
+-- Keyset paging: (filter columns..., sort key, id); the leading columns also serve
+-- plain "available products" and "products of an artist" filters
+CREATE INDEX idx_products_sold_date_added ON products (sold, date_added, id);
+CREATE INDEX idx_products_sold_year_created ON products (sold, year_created, id);
+CREATE INDEX idx_products_artist_sold_date_added ON products (artist_id, sold, date_added, id);
+CREATE INDEX idx_products_currency_sold_date_added ON products (currency, sold, date_added, id);
+-- Delta sync: rows changed after a client's cursor
+CREATE INDEX idx_products_change_version ON products (change_version);
+
+CREATE TABLE product_tombstones (
+    product_id INTEGER NOT NULL,
+    change_version BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (product_id)
+);
+
+CREATE INDEX idx_product_tombstones_change_version ON product_tombstones (change_version);
+CREATE INDEX idx_product_tombstones_deleted_at ON product_tombstones (deleted_at);
+
+CREATE TABLE catalog_version (
+    id INTEGER NOT NULL,
+    version BIGINT NOT NULL,
+    pruned_version BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Starts above the default change_version of unstamped rows, so a client cursor of 0
+-- always means "no cursor, reload"
+INSERT INTO catalog_version (id, version, pruned_version) VALUES (1, 1, 0);
+
+-- =====================================
+-- ADDRESSES / ORDERS
+-- =====================================
+CREATE TABLE addresses (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    mobile_nr VARCHAR(255),
+    country VARCHAR(255) NOT NULL,
+    postal_code VARCHAR(255) NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    address1 VARCHAR(255) NOT NULL,
+    address2 VARCHAR(255),
+    user_id INTEGER,
+    content_hash VARCHAR(64),
+    PRIMARY KEY (id),
+    -- Interned order addresses: a user's repeat shipping details reuse their own row,
+    -- and no row is shared between users (guests have user_id NULL and never collide)
+    CONSTRAINT uk_addresses_user_content_hash UNIQUE (user_id, content_hash),
+    CONSTRAINT fk_addresses_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_addresses_user ON addresses (user_id);
+
+CREATE TABLE orders (
+    id INTEGER NOT NULL,
+    order_date DATE NOT NULL,
+    order_status VARCHAR(255) NOT NULL,
+    payment_intent_id VARCHAR(255),
+    user_id INTEGER,
+    address_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_orders_payment_intent UNIQUE (payment_intent_id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_orders_address FOREIGN KEY (address_id) REFERENCES addresses (id)
+);
+
+-- A user's order history, newest first
+CREATE INDEX idx_orders_user_order_date ON orders (user_id, order_date);
+
+CREATE TABLE order_items (
+    id INTEGER NOT NULL,
+    order_id INTEGER NOT NULL,
+    product_id INTEGER NOT NULL,
+    price_at_purchase DOUBLE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+CREATE INDEX idx_order_items_product ON order_items (product_id);
@@ -45,6 +45,7 @@ public class TestDataFactory {
         product.setTitle("Test Painting");
         product.setSecretPrice(secretPrice);
         product.setCurrency("DKK");
+        product.setImageUrl("http://test.com/image.jpg"); // Column is NOT NULL
         product.setSold(false);
         product.setArtist(artist);
         return product;
@@ -0,0 +1,44 @@
+package dk.dtu.backend.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.persistence.entity.User;
+
+/**
+ * Shared fixtures so every benchmark measures against the same catalog shape.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    // Products spread over a handful of artists, with every field the DTO exposes filled in
+    static List<Product> catalog(int size) {
+        List<Artist> artists = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            User user = TestDataFactory.createUser("artist" + i + "@example.com", "ARTIST");
+            user.setId(i + 1);
+            Artist artist = TestDataFactory.createArtist(user);
+            artist.setId(i + 1);
+            artists.add(artist);
+        }
+
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Product product = TestDataFactory.createProductWithId(i + 1, artists.get(i % artists.size()), 500.0 + i);
+            product.setTitle("Painting " + i);
+            product.setDescription("Oil on canvas, study no. " + i + " from the harbour series");
+            product.setImageUrl("https://cdn.example.com/products/" + i + ".jpg");
+            product.setProductSize("60x80");
+            product.setYearCreated(2000 + i % 25);
+            product.setDateAdded(LocalDate.of(2024, 1, 1).plusDays(i));
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,29 @@
+package dk.dtu.backend.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmarks Maven profile.
+ * Runs every benchmark in this package (or those matching the include regex) and writes
+ * the JMH results as JSON so runs can be diffed between releases.
+ *
+ * Usage: BenchmarkRunner [result-file] [include-regex]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "target/jmh-result.json";
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackageName() + ".*Benchmark";
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .shouldFailOnError(true)
+                .build())
+            .run();
+    }
+}
@@ -0,0 +1,73 @@
+package dk.dtu.backend.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.service.CatalogSnapshot;
+import dk.dtu.backend.utils.DtoMapper;
+
+/**
+ * Catalog response cost, step by step: entity to DTO mapping, Jackson serialization,
+ * and the full pre-encoded snapshot (JSON + gzip + ETag) that ProductCatalogCache builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogBenchmark {
+
+    @Param({ "50", "500" })
+    private int size;
+
+    private List<Product> products;
+    private List<ProductDTO> dtos;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        products = BenchmarkData.catalog(size);
+        dtos = DtoMapper.toProductDTOList(products);
+
+        // Same date handling as the Spring Boot auto-configured mapper
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public List<ProductDTO> mapToDtos() {
+        return DtoMapper.toProductDTOList(products);
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public CatalogSnapshot encodeSnapshot() {
+        return CatalogSnapshot.encode(1L, dtos, objectMapper);
+    }
+}
@@ -0,0 +1,72 @@
+package dk.dtu.backend.benchmark;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import dk.dtu.backend.utils.JwtPrincipal;
+import dk.dtu.backend.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request JWT cost in JwtAuthenticationFilter: the old four full parses
+ * versus one cached parse into a JwtPrincipal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    // Same secret as JwtUtil / jwt.secret, needed to replay the previous parse path
+    private static final Key KEY = Keys.hmacShaKeyFor(
+            "wR8x!vP9sK2tM4uH1qL5jF3oZ6eN7rY0bG9aD2cS1kL8pV0xB3yH5mQ7tW9uR2fX".getBytes());
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        token = JwtUtil.generateToken("customer@example.com", "CUSTOMER", 42);
+        JwtUtil.parse(token);
+    }
+
+    // Previous filter: validateToken + getEmail + getRole + getUserId, each with a new parser
+    @Benchmark
+    public void fourParses(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token) != null);
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("role"));
+        blackhole.consume(legacyParse(token).get("userId"));
+    }
+
+    @Benchmark
+    public JwtPrincipal cachedParse() {
+        return JwtUtil.parse(token).orElseThrow();
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder().setSigningKey(KEY).build().parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
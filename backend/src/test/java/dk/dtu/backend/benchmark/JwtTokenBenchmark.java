@@ -0,0 +1,45 @@
+package dk.dtu.backend.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dk.dtu.backend.utils.JwtUtil;
+
+/**
+ * Token issue cost on login and validation cost on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        token = JwtUtil.generateToken("customer@example.com", "CUSTOMER", 42);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken("customer@example.com", "CUSTOMER", 42);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return JwtUtil.validateToken(token);
+    }
+}
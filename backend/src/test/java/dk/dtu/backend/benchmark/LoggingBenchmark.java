@@ -0,0 +1,84 @@
+package dk.dtu.backend.benchmark;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import dk.dtu.backend.service.LoggingService;
+import net.logstash.logback.encoder.LogstashEncoder;
+
+/**
+ * LoggingService event cost with the production JSON encoder writing to a null sink:
+ * an enabled info event with fields, and a debug event that the level guard discards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private final LoggingService loggingService = new LoggingService();
+
+    private Logger appLogger;
+    private OutputStreamAppender<ILoggingEvent> appender;
+
+    @Setup
+    public void setup() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        appLogger = (Logger) LoggerFactory.getLogger("AppLogger");
+        appLogger.detachAndStopAllAppenders();
+        appLogger.setAdditive(false);
+        appLogger.addAppender(appender);
+        appLogger.setLevel(Level.INFO);
+    }
+
+    @TearDown
+    public void tearDown() {
+        appLogger.detachAndStopAllAppenders();
+    }
+
+    @Benchmark
+    public void infoWithFields() {
+        loggingService.info("Order placed", Map.of(
+                "orderId", "1042",
+                "email", "customer@example.com",
+                "itemCount", "3"
+        ));
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        loggingService.debug("Reserving products", Map.of("productIds", "[1, 2, 3]"));
+    }
+}
@@ -0,0 +1,68 @@
+package dk.dtu.backend.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dk.dtu.backend.service.CheckoutMetrics;
+import dk.dtu.backend.service.MetricService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * Recording cost per request on the Prometheus registry: a raw registry lookup,
+ * the generic MetricService path, and the typed CheckoutMetrics handles.
+ * Runs with several threads since meters are hit concurrently by request threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private MeterRegistry registry;
+    private MetricService metricService;
+    private CheckoutMetrics checkoutMetrics;
+
+    @Setup
+    public void setup() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        metricService = new MetricService(registry);
+        checkoutMetrics = new CheckoutMetrics(registry);
+    }
+
+    @Benchmark
+    public void registryLookupCounter() {
+        registry.counter("checkout.bid", "success", "false", "reason", "bid_too_low").increment();
+    }
+
+    @Benchmark
+    public void metricServiceCounter() {
+        metricService.incrementCounter("checkout.bid", "success", "false", "reason", "bid_too_low");
+    }
+
+    @Benchmark
+    public void metricServiceTimer() {
+        metricService.recordDuration("products.catalog.duration", Duration.ofNanos(250_000), "success", "true");
+    }
+
+    @Benchmark
+    public void typedCounterAndTimer() {
+        checkoutMetrics.bidRejected(CheckoutMetrics.BidFailure.BID_TOO_LOW, checkoutMetrics.start());
+    }
+}
@@ -0,0 +1,107 @@
+package dk.dtu.backend.benchmark;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.AuthService;
+import dk.dtu.backend.service.LoggingService;
+import dk.dtu.backend.service.PasswordHashingService;
+import dk.dtu.backend.service.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Password hashing cost per algorithm and cost factor, alone and as part of a full email/password login
+ * (principal cache hit, hash verify on the hashing pool, token issue).
+ * Single-threaded throughput is logins per second per core: pick the highest cost that still meets the target,
+ * e.g. mvn -Pbenchmarks -Djmh.include=PasswordHashing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String EMAIL = "customer@example.com";
+    private static final String PASSWORD = "password123";
+
+    // algorithm:cost, where cost is the bcrypt strength or the PBKDF2 iteration count
+    @Param({ "bcrypt:8", "bcrypt:10", "bcrypt:12", "pbkdf2:310000", "pbkdf2:600000" })
+    public String encoding;
+
+    private PasswordHashingService passwordHashingService;
+    private AuthService authService;
+    private String storedHash;
+
+    @Setup
+    public void setup() {
+        ((Logger) LoggerFactory.getLogger("AppLogger")).setLevel(Level.OFF);
+
+        String[] parts = encoding.split(":");
+        int cost = Integer.parseInt(parts[1]);
+        boolean bcrypt = "bcrypt".equals(parts[0]);
+        passwordHashingService = new PasswordHashingService(new SimpleMeterRegistry(), parts[0],
+                bcrypt ? cost : 10, bcrypt ? 310_000 : cost, 1, 64);
+        storedHash = passwordHashingService.encode(PASSWORD);
+
+        User user = TestDataFactory.createUser(EMAIL, "CUSTOMER");
+        user.setId(42);
+        user.setPassword(storedHash);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "loggingService", new LoggingService());
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "passwordHashingService", passwordHashingService);
+        ReflectionTestUtils.setField(authService, "principalCache", new UserPrincipalCache(userRepository,
+                new SimpleMeterRegistry(), Duration.ofMinutes(10), Duration.ofSeconds(30), 100));
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return passwordHashingService.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public PasswordHashingService.Verification verifyPassword() {
+        return passwordHashingService.verify(PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    public Optional<String> login() {
+        return authService.login(EMAIL, PASSWORD);
+    }
+}
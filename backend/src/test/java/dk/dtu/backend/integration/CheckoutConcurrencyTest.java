@@ -0,0 +1,143 @@
+package dk.dtu.backend.integration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.dto.CartItemDTO;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.OrderService;
+import dk.dtu.backend.service.PaymentService;
+import dk.dtu.backend.service.ProductAlreadySoldException;
+
+/**
+ * Runs many checkouts in parallel over a handful of products and checks that no product is ever sold twice.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    properties = "spring.datasource.url=jdbc:h2:mem:checkout_concurrency;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL"
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+@DirtiesContext
+public class CheckoutConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CHECKOUTS = 200;
+    private static final int PRODUCTS = 10;
+
+    @MockitoBean
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private User customer;
+    private List<Integer> productIds;
+
+    @BeforeEach
+    public void setup() {
+        when(paymentService.validatePaymentAsync(anyString())).thenReturn(CompletableFuture.completedFuture(true));
+
+        customer = userRepository.save(TestDataFactory.createUser(
+            "concurrent_" + System.nanoTime() + "@example.com", "CUSTOMER"));
+        User artistUser = userRepository.save(TestDataFactory.createUser(
+            "concurrent_artist_" + System.nanoTime() + "@example.com", "ARTIST"));
+        Artist artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+
+        productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds.add(productRepository.save(TestDataFactory.createProduct(artist, 500.0)).getId());
+        }
+    }
+
+    @Test
+    public void placeOrder_ParallelCheckouts_NeverSellsAProductTwice() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Integer>>> results = new ArrayList<>();
+
+        // Each checkout buys one or two products, overlapping heavily with the others
+        for (int i = 0; i < CHECKOUTS; i++) {
+            List<Integer> cartIds = i % 3 == 0
+                ? List.of(productIds.get(i % PRODUCTS), productIds.get((i + 1) % PRODUCTS))
+                : List.of(productIds.get(i % PRODUCTS));
+            results.add(executor.submit(() -> {
+                start.await();
+                return checkout(cartIds);
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        Map<Integer, Integer> timesSold = new HashMap<>();
+        for (Future<List<Integer>> result : results) {
+            result.get().forEach(id -> timesSold.merge(id, 1, Integer::sum));
+        }
+
+        // Assert - no product sold twice, and the database agrees with the successful checkouts
+        assertTrue(!timesSold.isEmpty());
+        for (Integer productId : productIds) {
+            int sold = timesSold.getOrDefault(productId, 0);
+            assertTrue(sold <= 1, "product " + productId + " sold " + sold + " times");
+            assertEquals(sold == 1, productRepository.findById(productId).orElseThrow().isSold());
+        }
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    // Returns the products this checkout sold, or an empty list if it lost the race
+    private List<Integer> checkout(List<Integer> cartIds) {
+        List<CartItemDTO> cart = cartIds.stream()
+            .map(id -> TestDataFactory.createCartItem(id, 600.0))
+            .toList();
+        try {
+            orderService.placeOrder(customer, cart, TestDataFactory.createAddress(),
+                "concurrent-payment-" + UUID.randomUUID(), customer.getEmail());
+            return cartIds;
+        } catch (ProductAlreadySoldException | ConcurrencyFailureException e) {
+            // Lock timeouts between overlapping carts roll back just like a lost race
+            return List.of();
+        }
+    }
+}
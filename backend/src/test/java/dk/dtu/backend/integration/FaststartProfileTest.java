@@ -0,0 +1,49 @@
+package dk.dtu.backend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestSecurityConfig;
+
+/**
+ * Boots the faststart profile as the image does (lazy beans, no Hibernate schema work, Flyway owns the
+ * schema) and checks that the request-path components are still created eagerly.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:faststart;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+        "spring.flyway.enabled=true",
+        // faststart targets MariaDB and turns Hibernate's schema handling off; only the dialect is swapped
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=none"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles({"test", "faststart"})
+public class FaststartProfileTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    public void contextLoads_LazyInitialization_LeavesOtherServicesLazy() {
+        assertTrue(beanFactory.getBeanDefinition("orderService").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("catalogChangeService").isLazyInit());
+    }
+
+    @Test
+    public void contextLoads_HotPathAndControllers_CreatedEagerly() {
+        for (String bean : new String[] { "bidEngine", "productEventStream", "userPrincipalCache", "productController" }) {
+            assertFalse(beanFactory.getBeanDefinition(bean).isLazyInit(), bean + " is lazy");
+            assertTrue(beanFactory.containsSingleton(bean), bean + " was not created at startup");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dk.dtu.backend.integration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.persistence.entity.CatalogVersion;
+
+/**
+ * Builds the schema the way production does: Flyway applies db/migration and Hibernate only validates it,
+ * so a migration that does not run or drifts from the entity mappings fails the context.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:flyway_migrations;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=validate"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+public class FlywayMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void migrate_EmptyDatabase_AppliesEveryMigration() throws Exception {
+        int migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql").length;
+
+        List<Boolean> applied = jdbcTemplate.queryForList(
+            "SELECT \"success\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL", Boolean.class);
+
+        assertEquals(migrations, applied.size());
+        assertTrue(applied.stream().allMatch(Boolean::booleanValue), "failed migration in " + applied);
+    }
+
+    @Test
+    public void migrate_EmptyDatabase_SeedsCatalogAndCounter() {
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM catalog_version WHERE id = 1", Long.class);
+        Integer products = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+
+        assertTrue(version >= CatalogVersion.INITIAL, "catalog version " + version);
+        assertTrue(products > 0);
+    }
+}
@@ -0,0 +1,158 @@
+package dk.dtu.backend.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.dto.CartItemDTO;
+import dk.dtu.backend.persistence.entity.Address;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Order;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.AddressRepository;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.CatalogChangeService;
+import dk.dtu.backend.service.OrderService;
+import dk.dtu.backend.service.PaymentService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checkout should cost the same number of statements whatever the cart size:
+ * one lookup, one bulk sold update and batched inserts. A user's repeat shipping details reuse one address row.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:order_batching;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+@DirtiesContext
+public class OrderBatchingTest {
+
+    @MockitoBean
+    private PaymentService paymentService;
+
+    // Catalog stamps run on their own thread after commit; they are not part of the checkout's statements
+    @MockitoBean
+    private CatalogChangeService catalogChangeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    private Statistics statistics;
+    private User customer;
+    private Artist artist;
+
+    @BeforeEach
+    public void setup() {
+        when(paymentService.validatePaymentAsync(anyString())).thenReturn(CompletableFuture.completedFuture(true));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        customer = userRepository.save(TestDataFactory.createUser(
+            "batching_" + System.nanoTime() + "@example.com", "CUSTOMER"));
+        User artistUser = userRepository.save(TestDataFactory.createUser(
+            "batching_artist_" + System.nanoTime() + "@example.com", "ARTIST"));
+        artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+    }
+
+    @Test
+    public void placeOrder_LargerCart_SameStatementCount() {
+        // Warm up the sequence pools so neither measured order pays for an id fetch; the pooled
+        // optimizer reads each sequence twice before it has a full block (on a fresh sequence)
+        checkout(cartOf(1));
+        checkout(cartOf(1));
+
+        long smallCart = countStatements(cartOf(2));
+        long largeCart = countStatements(cartOf(20));
+
+        assertEquals(smallCart, largeCart);
+    }
+
+    @Test
+    public void placeOrder_SameShippingDetails_ReuseOneAddressRow() {
+        Order first = checkout(cartOf(1));
+
+        Address sameButFormattedDifferently = TestDataFactory.createAddress();
+        sameButFormattedDifferently.setCity("  " + sameButFormattedDifferently.getCity().toUpperCase() + " ");
+        Order second = orderService.placeOrder(customer, cartOf(1), sameButFormattedDifferently,
+            "batching-payment-" + UUID.randomUUID(), customer.getEmail());
+
+        assertEquals(first.getAddress().getId(), second.getAddress().getId());
+        assertEquals(customer.getId(), addressRepository.findById(second.getAddress().getId()).orElseThrow().getUser().getId());
+    }
+
+    @Test
+    public void placeOrder_SameShippingDetailsOtherUser_GetsOwnAddressRow() {
+        User otherCustomer = userRepository.save(TestDataFactory.createUser(
+            "batching_other_" + System.nanoTime() + "@example.com", "CUSTOMER"));
+
+        Order mine = checkout(cartOf(1));
+        Order theirs = orderService.placeOrder(otherCustomer, cartOf(1), TestDataFactory.createAddress(),
+            "batching-payment-" + UUID.randomUUID(), otherCustomer.getEmail());
+
+        assertNotEquals(mine.getAddress().getId(), theirs.getAddress().getId());
+        assertEquals(otherCustomer.getId(), addressRepository.findById(theirs.getAddress().getId()).orElseThrow().getUser().getId());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private long countStatements(List<CartItemDTO> cart) {
+        statistics.clear();
+        Order order = checkout(cart);
+        assertEquals(cart.size(), order.getOrderItems().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Order checkout(List<CartItemDTO> cart) {
+        return orderService.placeOrder(customer, cart, TestDataFactory.createAddress(),
+            "batching-payment-" + UUID.randomUUID(), customer.getEmail());
+    }
+
+    private List<CartItemDTO> cartOf(int items) {
+        List<CartItemDTO> cart = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Integer productId = productRepository.save(TestDataFactory.createProduct(artist, 500.0)).getId();
+            cart.add(TestDataFactory.createCartItem(productId, 600.0));
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,181 @@
+package dk.dtu.backend.integration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Order;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.OrderService;
+import dk.dtu.backend.service.PaymentUnavailableException;
+
+/**
+ * Runs checkout against a local payment stub with a tiny connection pool: checkouts waiting on the
+ * provider must not hold database connections, and a provider slower than the read timeout must fail fast.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment_isolation;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        // Checkouts queue for a connection behind cold-started write transactions; a parked checkout that kept
+        // its connection would hold it until the read timeout, longer than anyone waits for the pool
+        "spring.datasource.hikari.connection-timeout=1500",
+        "app.payment.read-timeout=2s"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+@DirtiesContext
+public class PaymentIsolationTest {
+
+    private static final int CHECKOUTS = 4;
+
+    private static final HttpServer paymentStub;
+    private static volatile CountDownLatch arrived;
+    private static volatile CountDownLatch release;
+    private static volatile long delayMillis;
+
+    static {
+        try {
+            paymentStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        paymentStub.createContext("/validate", PaymentIsolationTest::handlePayment);
+        paymentStub.setExecutor(Executors.newCachedThreadPool());
+        paymentStub.start();
+    }
+
+    @DynamicPropertySource
+    static void paymentProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.payment.validation-url",
+            () -> "http://localhost:" + paymentStub.getAddress().getPort() + "/validate");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        paymentStub.stop(0);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private User customer;
+    private Artist artist;
+
+    @BeforeEach
+    public void setup() {
+        arrived = new CountDownLatch(CHECKOUTS);
+        release = new CountDownLatch(1);
+        delayMillis = 0;
+
+        customer = userRepository.save(TestDataFactory.createUser(
+            "payment_" + System.nanoTime() + "@example.com", "CUSTOMER"));
+        User artistUser = userRepository.save(TestDataFactory.createUser(
+            "payment_artist_" + System.nanoTime() + "@example.com", "ARTIST"));
+        artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+    }
+
+    @Test
+    public void placeOrder_ProviderInFlight_DoesNotHoldConnections() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CHECKOUTS);
+        List<Future<Order>> orders = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            Integer productId = productRepository.save(TestDataFactory.createProduct(artist, 500.0)).getId();
+            orders.add(executor.submit(() -> checkout(productId)));
+        }
+
+        // Twice as many checkouts as pooled connections are now parked on the provider
+        assertTrue(arrived.await(5, TimeUnit.SECONDS));
+        long count = productRepository.count();
+        release.countDown();
+
+        assertTrue(count >= CHECKOUTS);
+        for (Future<Order> order : orders) {
+            assertEquals(1, order.get(10, TimeUnit.SECONDS).getOrderItems().size());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void placeOrder_ProviderSlowerThanReadTimeout_FailsFast() {
+        delayMillis = 5000;
+        release.countDown();
+        Integer productId = productRepository.save(TestDataFactory.createProduct(artist, 500.0)).getId();
+
+        long start = System.currentTimeMillis();
+        assertThrows(PaymentUnavailableException.class, () -> checkout(productId));
+
+        assertTrue(System.currentTimeMillis() - start < 4000);
+        assertTrue(!productRepository.findById(productId).orElseThrow().isSold());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private Order checkout(Integer productId) {
+        return orderService.placeOrder(customer, TestDataFactory.createCartWithOneItem(productId, 600.0),
+            TestDataFactory.createAddress(), "stub-payment-" + UUID.randomUUID(), customer.getEmail());
+    }
+
+    private static void handlePayment(HttpExchange exchange) throws IOException {
+        try {
+            arrived.countDown();
+            release.await(3, TimeUnit.SECONDS);
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] body = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
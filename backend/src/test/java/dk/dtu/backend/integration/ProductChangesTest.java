@@ -0,0 +1,218 @@
+package dk.dtu.backend.integration;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.dto.responses.CatalogChangesDTO;
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.CatalogChangeService;
+import dk.dtu.backend.service.ProductChangeEvent;
+import dk.dtu.backend.service.ProductService;
+
+/**
+ * Delta sync over /api/products/changes: a client holding a version cursor sees every change after it exactly once.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:product_changes;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+        "app.catalog.max-changes=5",
+        // The feed is driven by the tests below
+        "app.catalog.change-feed-interval=1h"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+@DirtiesContext
+@RecordApplicationEvents
+public class ProductChangesTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogChangeService catalogChangeService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    private Artist artist;
+
+    @BeforeEach
+    public void setup() {
+        User artistUser = userRepository.save(TestDataFactory.createUser(
+            "changes_artist_" + System.nanoTime() + "@example.com", "ARTIST"));
+        artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+    }
+
+    @Test
+    public void getChanges_CreateUpdateSellDelete_EachReportedAfterCursor() {
+        long cursor = fetch(currentVersion()).getVersion();
+
+        Product created = productService.saveProduct(TestDataFactory.createProduct(artist, 500.0));
+        Product toUpdate = productService.saveProduct(TestDataFactory.createProduct(artist, 600.0));
+        Product toSell = productService.saveProduct(TestDataFactory.createProduct(artist, 700.0));
+        Product toDelete = productService.saveProduct(TestDataFactory.createProduct(artist, 800.0));
+        cursor = fetch(cursor).getVersion();
+
+        toUpdate.setTitle("Renamed");
+        productService.updateProduct(toUpdate.getId(), toUpdate);
+        productService.markSold(List.of(toSell.getId()));
+        productService.deleteProduct(toDelete.getId());
+
+        CatalogChangesDTO changes = fetch(cursor);
+
+        assertFalse(changes.isReset());
+        assertTrue(changes.getVersion() > cursor);
+        assertEquals(List.of(toUpdate.getId()), changes.getChanged().stream().map(ProductDTO::getId).toList());
+        assertEquals("Renamed", changes.getChanged().get(0).getTitle());
+        assertEquals(List.of(toSell.getId()), changes.getSold());
+        assertEquals(List.of(toDelete.getId()), changes.getDeleted());
+        assertFalse(changes.getChanged().stream().anyMatch(p -> p.getId() == created.getId()));
+
+        // Nothing new since the returned cursor
+        CatalogChangesDTO empty = fetch(changes.getVersion());
+        assertEquals(changes.getVersion(), empty.getVersion());
+        assertTrue(empty.getChanged().isEmpty() && empty.getSold().isEmpty() && empty.getDeleted().isEmpty());
+    }
+
+    @Test
+    public void getChanges_MoreThanMaxChanges_AsksForReset() {
+        long cursor = currentVersion();
+        for (int i = 0; i < 6; i++) {
+            productService.saveProduct(TestDataFactory.createProduct(artist, 100.0 + i));
+        }
+
+        CatalogChangesDTO changes = fetch(cursor);
+
+        assertTrue(changes.isReset());
+        assertTrue(changes.getChanged().isEmpty());
+        assertEquals(cursor + 6, changes.getVersion());
+    }
+
+    @Test
+    public void getChanges_CursorAheadOfServer_AsksForReset() {
+        assertTrue(fetch(currentVersion() + 1_000).isReset());
+    }
+
+    @Test
+    public void getChanges_NoCursor_AsksForReset() {
+        CatalogChangesDTO changes = fetch(0);
+
+        assertTrue(changes.isReset());
+        assertTrue(changes.getVersion() > 0);
+    }
+
+    @Test
+    public void getChanges_StampLost_SweepStampsPendingRow() {
+        long cursor = currentVersion();
+        // Written without a change event, as if the instance died right after commit
+        Product orphan = productRepository.save(TestDataFactory.createProduct(artist, 900.0));
+
+        assertTrue(fetch(cursor).getChanged().isEmpty());
+
+        catalogChangeService.sweepPending();
+
+        CatalogChangesDTO changes = fetch(cursor);
+        assertEquals(List.of(orphan.getId()), changes.getChanged().stream().map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    public void feedRemoteChanges_StampedByOtherInstance_PublishedAsRemoteEvent() {
+        catalogChangeService.feedRemoteChanges();
+        events.clear();
+
+        // Written and stamped without going through this instance's change events
+        Product elsewhere = productRepository.save(TestDataFactory.createProduct(artist, 950.0));
+        catalogChangeService.stampPending(List.of(elsewhere.getId()));
+        catalogChangeService.feedRemoteChanges();
+
+        List<ProductChangeEvent> remote = remoteEvents();
+        assertEquals(1, remote.size());
+        assertEquals(ProductChangeEvent.Type.UPDATED, remote.get(0).type());
+        assertEquals(List.of(elsewhere.getId()), remote.get(0).productIds());
+    }
+
+    @Test
+    public void feedRemoteChanges_OnlyLocalWrites_PublishesNothing() {
+        catalogChangeService.feedRemoteChanges();
+        events.clear();
+
+        Product mine = productService.saveProduct(TestDataFactory.createProduct(artist, 960.0));
+        productService.markSold(List.of(mine.getId()));
+        // Waits for the local stamps
+        currentVersion();
+        catalogChangeService.feedRemoteChanges();
+
+        assertTrue(remoteEvents().isEmpty());
+    }
+
+    @Test
+    public void getChanges_NegativeCursor_ReturnsBadRequest() {
+        ResponseEntity<Map> response = restTemplate.getForEntity(url(-1), Map.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private List<ProductChangeEvent> remoteEvents() {
+        return events.stream(ProductChangeEvent.class).filter(ProductChangeEvent::remote).toList();
+    }
+
+    private long currentVersion() {
+        return productService.getChangesSince(Long.MAX_VALUE).getVersion();
+    }
+
+    private CatalogChangesDTO fetch(long since) {
+        ResponseEntity<CatalogChangesDTO> response = restTemplate.getForEntity(url(since), CatalogChangesDTO.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private String url(long since) {
+        return "http://localhost:" + port + "/api/products/changes?since=" + since;
+    }
+}
@@ -1,8 +1,15 @@
 package dk.dtu.backend.integration;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,7 +30,11 @@ import org.springframework.test.context.ActiveProfiles;
 import dk.dtu.backend.TestApplication;
 import dk.dtu.backend.TestDataFactory;
 import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
 import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
 import dk.dtu.backend.persistence.repository.UserRepository;
 import dk.dtu.backend.utils.JwtUtil;
 
@@ -46,6 +57,12 @@ public class ProductControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
     private String baseUrl;
     private String customerEmail;
     private String customerJwtToken;
@@ -90,4 +107,131 @@ public class ProductControllerTest {
         assertTrue(products.size() >= 0); // Just check it returns a list
     }
 
+    @Test
+    public void getCatalogPage_WalkingCursors_ReturnsEveryProductOnce() {
+        // Arrange - 5 products for a fresh artist, two of them added on the same day
+        User artistUser = userRepository.save(
+            TestDataFactory.createUser("paging_" + System.currentTimeMillis() + "@example.com", "ARTIST"));
+        Artist artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+        List<Integer> expectedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Product product = TestDataFactory.createProduct(artist, 500.0);
+            product.setImageUrl("http://test.com/image.jpg");
+            product.setYearCreated(2020 + i);
+            product.setDateAdded(LocalDate.of(2025, 1, 1).plusDays(Math.min(i, 3)));
+            expectedIds.add(productRepository.save(product).getId());
+        }
+
+        // Act - walk the pages two at a time
+        List<Integer> seenIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = baseUrl + "/catalog?size=2&sort=dateAdded&artistId=" + artist.getId()
+                + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+
+            List<Map<String, Object>> items = (List<Map<String, Object>>) response.getBody().get("items");
+            items.forEach(item -> seenIds.add((Integer) item.get("id")));
+            cursor = (String) response.getBody().get("nextCursor");
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        // Assert
+        assertEquals(3, pages);
+        assertEquals(5, seenIds.size());
+        assertEquals(new HashSet<>(expectedIds), new HashSet<>(seenIds));
+    }
+
+    @Test
+    public void getCatalogPage_NullSortKeysAcrossPages_ReturnsEveryProductOnce() {
+        // Arrange - 5 products, the middle ones without dateAdded/yearCreated, so pages end on NULL keys
+        User artistUser = userRepository.save(
+            TestDataFactory.createUser("paging_null_" + System.currentTimeMillis() + "@example.com", "ARTIST"));
+        Artist artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+        List<Integer> expectedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Product product = TestDataFactory.createProduct(artist, 500.0);
+            product.setImageUrl("http://test.com/image.jpg");
+            if (i == 0 || i == 4) {
+                product.setYearCreated(2020 + i);
+                product.setDateAdded(LocalDate.of(2025, 1, 1).plusDays(i));
+            }
+            expectedIds.add(productRepository.save(product).getId());
+        }
+
+        // Act + Assert - every sort key with NULLs, in both directions
+        for (String sort : List.of("dateAdded", "yearCreated")) {
+            for (String direction : List.of("asc", "desc")) {
+                List<Integer> seenIds = walkCatalog("sort=" + sort + "&direction=" + direction
+                    + "&artistId=" + artist.getId());
+                assertEquals(5, seenIds.size(), sort + " " + direction + ": " + seenIds);
+                assertEquals(new HashSet<>(expectedIds), new HashSet<>(seenIds));
+            }
+        }
+    }
+
+    @Test
+    public void getCatalogPage_TamperedCursorValue_ReturnsBadRequest() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("dateAdded|not-a-date|5".getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<Map> response = restTemplate.getForEntity(
+            baseUrl + "/catalog?sort=dateAdded&cursor=" + cursor, Map.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void getCatalogPage_UnknownSortKey_ReturnsBadRequest() {
+        ResponseEntity<Map> response = restTemplate.getForEntity(baseUrl + "/catalog?sort=price", Map.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertFalse(response.getBody().isEmpty());
+    }
+
+    @Test
+    public void getAvailableProducts_MatchingETag_ReturnsNotModified() {
+        // Arrange
+        ResponseEntity<String> first = restTemplate.getForEntity(baseUrl + "/available", String.class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+
+        // Act
+        ResponseEntity<String> second = restTemplate.exchange(
+            baseUrl + "/available",
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(etag, second.getHeaders().getETag());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    // Follows nextCursor two items at a time and returns the ids in the order served
+    private List<Integer> walkCatalog(String query) {
+        List<Integer> seenIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = baseUrl + "/catalog?size=2&" + query + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+
+            List<Map<String, Object>> items = (List<Map<String, Object>>) response.getBody().get("items");
+            items.forEach(item -> seenIds.add((Integer) item.get("id")));
+            cursor = (String) response.getBody().get("nextCursor");
+            pages++;
+        } while (cursor != null && pages < 10);
+        return seenIds;
+    }
+
 }
\ No newline at end of file
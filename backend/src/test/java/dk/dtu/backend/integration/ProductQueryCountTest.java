@@ -0,0 +1,116 @@
+package dk.dtu.backend.integration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.dto.ProductPageRequest;
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.dto.responses.ProductPageDTO;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Guards against N+1 artist loading: listing products must cost the same number of
+ * statements no matter how many products and artists are returned.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:product_query_count;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+public class ProductQueryCountTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void getAllProductDTOs_ManyArtists_SingleStatement() {
+        createArtistsWithProducts(2);
+        assertEquals(1, countStatements(() -> productService.getAllProductDTOs()));
+
+        createArtistsWithProducts(5);
+        statistics.clear();
+        List<ProductDTO> products = productService.getAllProductDTOs();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(products.size() >= 14);
+        assertNotNull(products.get(0).getArtistFirstName());
+    }
+
+    @Test
+    public void getProductPage_ManyArtists_SingleStatement() {
+        createArtistsWithProducts(6);
+
+        ProductPageRequest request = new ProductPageRequest();
+        request.setSize(ProductPageRequest.MAX_SIZE);
+        assertEquals(1, countStatements(() -> productService.getProductPage(request)));
+
+        // Style filter joins the artist as well; still no follow-up selects
+        request.setStyle("Contemporary");
+        statistics.clear();
+        ProductPageDTO page = productService.getProductPage(request);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(!page.getItems().isEmpty());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private long countStatements(Runnable query) {
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createArtistsWithProducts(int artists) {
+        for (int i = 0; i < artists; i++) {
+            User user = userRepository.save(TestDataFactory.createUser(
+                "nplusone_" + System.nanoTime() + "@example.com", "ARTIST"));
+            Artist artist = artistRepository.save(TestDataFactory.createArtist(user));
+            productRepository.save(TestDataFactory.createProduct(artist, 500.0));
+            productRepository.save(TestDataFactory.createProduct(artist, 750.0));
+        }
+    }
+}
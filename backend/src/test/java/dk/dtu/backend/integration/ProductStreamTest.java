@@ -0,0 +1,160 @@
+package dk.dtu.backend.integration;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.ProductChangeEvent;
+import dk.dtu.backend.service.ProductEventStream;
+import dk.dtu.backend.service.ProductService;
+
+/**
+ * Reads /api/products/stream over a real connection: live deltas, Last-Event-ID resume and reset.
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.datasource.url=jdbc:h2:mem:product_stream;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL"
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+@DirtiesContext
+public class ProductStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductEventStream productEventStream;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private Artist artist;
+
+    @BeforeEach
+    public void setup() {
+        User artistUser = userRepository.save(TestDataFactory.createUser(
+            "stream_artist_" + System.nanoTime() + "@example.com", "ARTIST"));
+        artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+    }
+
+    @Test
+    public void stream_ProductCreated_PushesAddedDelta() throws Exception {
+        BlockingQueue<String> lines = subscribe(null);
+
+        Product saved = productService.saveProduct(TestDataFactory.createProduct(artist, 500.0));
+
+        assertEquals("event:added", awaitLine(lines, "event:"));
+        String data = awaitLine(lines, "data:");
+        assertTrue(data.contains("\"productIds\":[" + saved.getId() + "]"), data);
+    }
+
+    @Test
+    public void stream_ReconnectWithLastEventId_ReplaysMissedEvents() throws Exception {
+        BlockingQueue<String> first = subscribe(null);
+        eventPublisher.publishEvent(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, 1));
+        String lastEventId = awaitLine(first, "id:").substring("id:".length());
+
+        // Published while the client is "disconnected"
+        eventPublisher.publishEvent(ProductChangeEvent.of(ProductChangeEvent.Type.SOLD, 2));
+        eventPublisher.publishEvent(ProductChangeEvent.of(ProductChangeEvent.Type.DELETED, 3));
+
+        BlockingQueue<String> resumed = subscribe(lastEventId);
+        assertEquals("event:sold", awaitLine(resumed, "event:"));
+        assertEquals("event:deleted", awaitLine(resumed, "event:"));
+    }
+
+    @Test
+    public void stream_UnknownLastEventId_SendsReset() throws Exception {
+        BlockingQueue<String> lines = subscribe("previous-run-42");
+
+        assertEquals("event:reset", awaitLine(lines, "event:"));
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    // Opens the stream on a background thread and returns its lines as they arrive
+    private BlockingQueue<String> subscribe(String lastEventId) throws InterruptedException {
+        int before = productEventStream.subscriberCount();
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/stream"))
+            .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+
+        Thread reader = new Thread(() -> {
+            try {
+                HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+                try (BufferedReader body = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = body.readLine()) != null) {
+                        lines.add(line);
+                    }
+                }
+            } catch (Exception e) {
+                lines.add("error:" + e);
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        // Events are only delivered once the broadcaster has registered the connection
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (productEventStream.subscriberCount() <= before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return lines;
+    }
+
+    private String awaitLine(BlockingQueue<String> lines, String prefix) throws InterruptedException {
+        while (true) {
+            String line = lines.poll(10, TimeUnit.SECONDS);
+            assertNotNull(line, "no '" + prefix + "' line within 10s");
+            if (line.startsWith(prefix)) {
+                return line;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package dk.dtu.backend.integration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestSecurityConfig;
+
+/**
+ * The hot queries must be answered from an index, and the migrations must declare the same indexes as the
+ * entity mappings (tests build their schema from the mappings, production from db/migration).
+ */
+@SpringBootTest(
+    classes = TestApplication.class,
+    properties = "spring.datasource.url=jdbc:h2:mem:schema_indexes;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL"
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+public class SchemaIndexTest {
+
+    private static final Pattern DECLARED_NAME = Pattern.compile("\\b((?:idx|uk)_[a-z0-9_]+)\\b");
+    // The name just matched follows DROP CONSTRAINT / DROP INDEX
+    private static final Pattern DROPPED = Pattern.compile("(?i)\\bDROP\\s+(?:CONSTRAINT|INDEX)\\s+$");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void explain_AvailableProductsByDate_UsesSoldDateIndex() {
+        assertUsesIndex("SELECT id FROM products WHERE sold = FALSE ORDER BY date_added",
+            "idx_products_sold_date_added");
+    }
+
+    @Test
+    public void explain_ArtistAvailableProducts_UsesArtistSoldIndex() {
+        assertUsesIndex("SELECT id FROM products WHERE artist_id = 1 AND sold = FALSE",
+            "idx_products_artist_sold_date_added");
+    }
+
+    @Test
+    public void explain_UserOrderHistory_UsesUserOrderDateIndex() {
+        assertUsesIndex("SELECT id FROM orders WHERE user_id = 1 AND order_date >= DATE '2025-01-01'",
+            "idx_orders_user_order_date");
+    }
+
+    @Test
+    public void explain_ItemsOfOrder_UsesOrderIndex() {
+        assertUsesIndex("SELECT id FROM order_items WHERE order_id = 1", "idx_order_items_order");
+    }
+
+    // user_id also leads the interned-address unique key; either index answers it
+    @Test
+    public void explain_AddressesOfUser_UsesUserIndex() {
+        assertUsesIndex("SELECT id FROM addresses WHERE user_id = 1", "idx_addresses_user", "uk_addresses_user_content_hash");
+    }
+
+    @Test
+    public void explain_LoginByEmail_UsesUniqueEmailIndex() {
+        assertUsesIndex("SELECT id FROM users WHERE email = 'customer@example.com'", "uk_users_email");
+    }
+
+    @Test
+    public void migrations_DeclareExactlyTheMappedIndexes() throws Exception {
+        // Replays every migration in version order: names are declared by CREATE/ADD and removed by DROP
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(migrations, Comparator.comparingInt(SchemaIndexTest::migrationVersion));
+        Set<String> migrated = new TreeSet<>();
+        for (Resource migration : migrations) {
+            String sql = migration.getContentAsString(StandardCharsets.UTF_8).replaceAll("--[^\n]*", "");
+            Matcher matcher = DECLARED_NAME.matcher(sql);
+            while (matcher.find()) {
+                boolean dropped = DROPPED.matcher(sql.substring(0, matcher.start())).find();
+                if (dropped) {
+                    migrated.remove(matcher.group(1));
+                } else {
+                    migrated.add(matcher.group(1));
+                }
+            }
+        }
+
+        // H2 names the index behind a unique constraint "<constraint>_INDEX_<n>"
+        List<String> indexes = jdbcTemplate.queryForList(
+            "SELECT LOWER(index_name) FROM information_schema.indexes WHERE table_schema = 'PUBLIC'", String.class);
+        Set<String> mapped = new TreeSet<>();
+        for (String index : indexes) {
+            Matcher name = DECLARED_NAME.matcher(index.replaceAll("_index_[0-9a-z]+$", ""));
+            if (name.matches()) {
+                mapped.add(name.group(1));
+            }
+        }
+
+        assertFalse(migrated.isEmpty());
+        assertTrue(migrated.equals(mapped), "db/migration declares " + migrated + " but the entities map " + mapped);
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private void assertUsesIndex(String query, String... indexes) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class)).toLowerCase(Locale.ROOT);
+        assertTrue(Arrays.stream(indexes).anyMatch(plan::contains),
+            "expected one of " + Arrays.toString(indexes) + " in plan:\n" + plan);
+    }
+
+    private static int migrationVersion(Resource migration) {
+        String name = migration.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
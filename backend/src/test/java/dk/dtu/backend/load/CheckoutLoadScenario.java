@@ -0,0 +1,185 @@
+package dk.dtu.backend.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+
+/**
+ * Closed-model checkout load against a payment stub that answers after PAYMENT_DELAY_MS.
+ * Subclasses only switch the execution mode; results go to target/load-results/.
+ * Run with: mvn test -Pload-test
+ */
+@Tag("load")
+@SpringBootTest(
+    classes = TestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "server.tomcat.threads.max=50",
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "app.payment.read-timeout=5s",
+        "app.web.max-concurrent-requests=400",
+        "logging.level.dk.dtu.backend=WARN",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "spring.jpa.show-sql=false"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+@DirtiesContext
+abstract class CheckoutLoadScenario {
+
+    private static final int PAYMENT_DELAY_MS = 200;
+    private static final int CLIENTS = 200;
+    private static final int CHECKOUTS = 2000;
+
+    private static final PaymentStub paymentStub = PaymentStub.start(PAYMENT_DELAY_MS);
+
+    @DynamicPropertySource
+    static void paymentProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.payment.validation-url", paymentStub::validationUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        paymentStub.stop();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Integer> productIds;
+
+    protected abstract String modeName();
+
+    @BeforeEach
+    public void setup() {
+        // TestSecurityConfig authenticates every request as user id 1, so the customer goes in first
+        userRepository.save(TestDataFactory.createUser("load_customer@example.com", "CUSTOMER"));
+        User artistUser = userRepository.save(TestDataFactory.createUser("load_artist@example.com", "ARTIST"));
+        Artist artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            Product product = TestDataFactory.createProduct(artist, 500.0);
+            product.setImageUrl("http://test.com/image.jpg");
+            products.add(product);
+        }
+        productIds = productRepository.saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    @Test
+    public void placeOrder_SlowPaymentProvider_ReportsThroughputAndP99() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        String url = "http://localhost:" + port + "/api/checkout/placeorder";
+
+        long[] latencies = new long[CHECKOUTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < CHECKOUTS) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(checkoutJson(productIds.get(i))))
+                        .build();
+                    long sent = System.nanoTime();
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    latencies[i] = System.nanoTime() - sent;
+
+                    switch (response.statusCode()) {
+                        case 200 -> ok.incrementAndGet();
+                        case 503 -> rejected.incrementAndGet();
+                        default -> failed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        String report = String.format(
+            "mode=%s clients=%d checkouts=%d paymentDelayMs=%d throughput=%.1f/s p50=%.1fms p99=%.1fms ok=%d rejected=%d failed=%d%n",
+            modeName(), CLIENTS, CHECKOUTS, PAYMENT_DELAY_MS, CHECKOUTS / seconds,
+            percentile(latencies, 0.50), percentile(latencies, 0.99), ok.get(), rejected.get(), failed.get());
+        System.out.print(report);
+
+        Path results = Path.of("target", "load-results");
+        Files.createDirectories(results);
+        Files.writeString(results.resolve("checkout-" + modeName() + ".txt"), report);
+
+        assertEquals(0, failed.get());
+        assertTrue(ok.get() > 0);
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private static double percentile(long[] sortedNanos, double p) {
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static String checkoutJson(Integer productId) {
+        return "{\"cart\":[{\"productId\":" + productId + ",\"bidPrice\":600}],"
+            + "\"address\":{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"load@example.com\","
+            + "\"country\":\"Denmark\",\"postalCode\":\"1000\",\"city\":\"Copenhagen\",\"address1\":\"Test Street 1\"},"
+            + "\"paymentIntentId\":\"load-" + productId + "-" + UUID.randomUUID() + "\"}";
+    }
+}
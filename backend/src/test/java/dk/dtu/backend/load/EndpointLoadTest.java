@@ -0,0 +1,351 @@
+package dk.dtu.backend.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import dk.dtu.backend.TestApplication;
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.TestSecurityConfig;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.ProductChangeEvent;
+
+/**
+ * Open-model load over the main endpoints: requests arrive at a fixed rate whether or not earlier ones
+ * have finished, and latency is measured from the scheduled send time, so a stalled server shows up
+ * in the tail instead of silently slowing the generator down.
+ *
+ * Everything runs in-process: H2, the app on a random port and a payment stub with configurable latency.
+ * Per-endpoint throughput and HdrHistogram percentiles go to target/load-results/.
+ *
+ * Run with: mvn test -Pload-test -Dtest=EndpointLoadTest [-Dload.rate=400 -Dload.duration-seconds=60
+ *           -Dload.max-in-flight=512 -Dload.payment-latency-ms=200]
+ */
+@Tag("load")
+@SpringBootTest(
+    classes = TestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:endpoint_load;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+        "server.tomcat.threads.max=50",
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "app.payment.read-timeout=5s",
+        "app.web.max-concurrent-requests=400",
+        "logging.level.dk.dtu.backend=WARN",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "spring.jpa.show-sql=false"
+    }
+)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("test")
+@DirtiesContext
+public class EndpointLoadTest {
+
+    private static final int RATE_PER_SECOND = Integer.getInteger("load.rate", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 20);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("load.max-in-flight", 256);
+    private static final int PAYMENT_LATENCY_MS = Integer.getInteger("load.payment-latency-ms", 200);
+
+    private static final String LOGIN_EMAIL = "load_login@example.com";
+    private static final String LOGIN_PASSWORD = "password123";
+
+    // Traffic mix out of every ten arrivals: mostly browsing, then bidding, logins and orders
+    private enum Endpoint {
+        AVAILABLE_PRODUCTS(5),
+        PLACE_BID(3),
+        LOGIN(1),
+        PLACE_ORDER(1);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final Endpoint[] SCHEDULE = buildSchedule();
+
+    private static final PaymentStub paymentStub = PaymentStub.start(PAYMENT_LATENCY_MS);
+
+    @DynamicPropertySource
+    static void paymentProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.payment.validation-url", paymentStub::validationUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        paymentStub.stop();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private HttpClient client;
+    private List<Integer> bidProductIds;
+    private List<Integer> orderProductIds;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        // TestSecurityConfig authenticates every request as user id 1, so the customer goes in first
+        userRepository.save(TestDataFactory.createUser("load_customer@example.com", "CUSTOMER"));
+        User artistUser = userRepository.save(TestDataFactory.createUser("load_artist@example.com", "ARTIST"));
+        Artist artist = artistRepository.save(TestDataFactory.createArtist(artistUser));
+
+        // Every order needs a product nobody else buys; bids share a smaller pool
+        int expectedOrders = RATE_PER_SECOND * DURATION_SECONDS * Endpoint.PLACE_ORDER.weight / SCHEDULE.length;
+        orderProductIds = saveProducts(artist, expectedOrders + 100);
+        bidProductIds = saveProducts(artist, 200);
+
+        List<Integer> created = new ArrayList<>(orderProductIds);
+        created.addAll(bidProductIds);
+        eventPublisher.publishEvent(new ProductChangeEvent(ProductChangeEvent.Type.CREATED, created));
+
+        // Register through the API so the stored password uses whatever hashing the app applies
+        HttpResponse<String> registered = client.send(post("/api/auth/register", registerJson()),
+            HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, registered.statusCode(), registered.body());
+    }
+
+    @Test
+    public void mixedTraffic_OpenModel_ReportsThroughputAndLatencyPerEndpoint() throws Exception {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        AtomicInteger nextOrderProduct = new AtomicInteger();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE_PER_SECOND;
+        int arrivals = RATE_PER_SECOND * DURATION_SECONDS;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < arrivals; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = SCHEDULE[i % SCHEDULE.length];
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (!inFlight.tryAcquire()) {
+                // The client-side cap is full; count it rather than queue and distort the arrival rate
+                endpointStats.shed.increment();
+                continue;
+            }
+
+            HttpRequest request = requestFor(endpoint, nextOrderProduct);
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    endpointStats.record(scheduled, response, error);
+                    inFlight.release();
+                }));
+        }
+
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+            .handle((ignored, error) -> null)
+            .get(2, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        writeReport(stats, seconds);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            assertEquals(0, endpointStats.transportErrors.sum(), endpoint + " had transport errors");
+            assertEquals(0, endpointStats.serverErrors.sum(), endpoint + " returned 5xx responses");
+            assertTrue(endpointStats.latencies.getTotalCount() > 0, endpoint + " saw no traffic");
+        }
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private HttpRequest requestFor(Endpoint endpoint, AtomicInteger nextOrderProduct) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (endpoint) {
+            case AVAILABLE_PRODUCTS -> HttpRequest.newBuilder(uri("/api/products/available")).GET().build();
+            case PLACE_BID -> post("/api/checkout/placebid", "{\"productId\":"
+                + bidProductIds.get(random.nextInt(bidProductIds.size()))
+                + ",\"amount\":" + (400 + random.nextInt(300)) + "}");
+            case LOGIN -> post("/api/auth/login",
+                "{\"email\":\"" + LOGIN_EMAIL + "\",\"password\":\"" + LOGIN_PASSWORD + "\"}");
+            case PLACE_ORDER -> post("/api/checkout/placeorder",
+                checkoutJson(orderProductIds.get(nextOrderProduct.getAndIncrement() % orderProductIds.size())));
+        };
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private List<Integer> saveProducts(Artist artist, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = TestDataFactory.createProduct(artist, 500.0);
+            product.setImageUrl("http://test.com/image.jpg");
+            products.add(product);
+        }
+        return productRepository.saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    private void writeReport(Map<Endpoint, EndpointStats> stats, double seconds) throws IOException {
+        Path results = Path.of("target", "load-results");
+        Files.createDirectories(results);
+
+        StringBuilder summary = new StringBuilder(String.format(
+            "rate=%d/s duration=%ds maxInFlight=%d paymentLatencyMs=%d%n",
+            RATE_PER_SECOND, DURATION_SECONDS, MAX_IN_FLIGHT, paymentStub.latencyMillis()));
+
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            Histogram latencies = endpointStats.latencies;
+            summary.append(String.format(
+                "%-18s completed=%d throughput=%.1f/s p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms "
+                    + "2xx=%d 4xx=%d 5xx=%d rejected503=%d shed=%d errors=%d%n",
+                entry.getKey(), latencies.getTotalCount(), latencies.getTotalCount() / seconds,
+                millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+                latencies.getMaxValue() / 1000.0,
+                endpointStats.success.sum(), endpointStats.clientErrors.sum(), endpointStats.serverErrors.sum(),
+                endpointStats.rejected.sum(), endpointStats.shed.sum(), endpointStats.transportErrors.sum()));
+
+            // Full distribution in HdrHistogram's .hgrm format, in milliseconds
+            Path hgrm = results.resolve("endpoint-" + entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(hgrm))) {
+                latencies.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        System.out.print(summary);
+        Files.writeString(results.resolve("endpoints-summary.txt"), summary);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Endpoint[] buildSchedule() {
+        List<Endpoint> schedule = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            for (int i = 0; i < endpoint.weight; i++) {
+                schedule.add(endpoint);
+            }
+        }
+        return schedule.toArray(Endpoint[]::new);
+    }
+
+    private static String registerJson() {
+        return "{\"user\":{\"email\":\"" + LOGIN_EMAIL + "\",\"password\":\"" + LOGIN_PASSWORD + "\","
+            + "\"accountType\":\"CUSTOMER\"},\"address\":" + addressJson() + "}";
+    }
+
+    private static String checkoutJson(Integer productId) {
+        return "{\"cart\":[{\"productId\":" + productId + ",\"bidPrice\":600}],"
+            + "\"address\":" + addressJson() + ","
+            + "\"paymentIntentId\":\"load-" + productId + "-" + UUID.randomUUID() + "\"}";
+    }
+
+    private static String addressJson() {
+        return "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"load@example.com\","
+            + "\"country\":\"Denmark\",\"postalCode\":\"1000\",\"city\":\"Copenhagen\",\"address1\":\"Test Street 1\"}";
+    }
+
+    // Latencies in microseconds, measured from the scheduled send time
+    private static final class EndpointStats {
+        private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(2), 3);
+        private final LongAdder success = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder transportErrors = new LongAdder();
+
+        void record(long scheduledNanos, HttpResponse<?> response, Throwable error) {
+            if (error != null) {
+                transportErrors.increment();
+                return;
+            }
+            latencies.recordValue(Math.min((System.nanoTime() - scheduledNanos) / 1000, latencies.getHighestTrackableValue()));
+
+            int status = response.statusCode();
+            if (status == 503) {
+                // Shed by ConcurrencyLimitFilter: expected under overload, reported separately
+                rejected.increment();
+            } else if (status >= 500) {
+                serverErrors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            } else {
+                success.increment();
+            }
+        }
+    }
+}
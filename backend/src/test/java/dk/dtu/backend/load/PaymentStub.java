@@ -0,0 +1,65 @@
+package dk.dtu.backend.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the payment provider: approves every token after a fixed latency.
+ * Each request is served on its own virtual thread, so the stub never becomes the bottleneck.
+ */
+final class PaymentStub {
+
+    private final HttpServer server;
+    private final int latencyMillis;
+
+    private PaymentStub(HttpServer server, int latencyMillis) {
+        this.server = server;
+        this.latencyMillis = latencyMillis;
+    }
+
+    static PaymentStub start(int latencyMillis) {
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        PaymentStub stub = new PaymentStub(server, latencyMillis);
+        server.createContext("/validate", stub::approve);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return stub;
+    }
+
+    String validationUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/validate";
+    }
+
+    int latencyMillis() {
+        return latencyMillis;
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void approve(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
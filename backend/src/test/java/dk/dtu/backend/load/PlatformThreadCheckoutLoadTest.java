@@ -0,0 +1,15 @@
+package dk.dtu.backend.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+    "spring.threads.virtual.enabled=false",
+    "spring.datasource.url=jdbc:h2:mem:load_platform;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL"
+})
+public class PlatformThreadCheckoutLoadTest extends CheckoutLoadScenario {
+
+    @Override
+    protected String modeName() {
+        return "platform";
+    }
+}
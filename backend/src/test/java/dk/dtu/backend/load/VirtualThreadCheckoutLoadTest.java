@@ -0,0 +1,15 @@
+package dk.dtu.backend.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+    "spring.threads.virtual.enabled=true",
+    "spring.datasource.url=jdbc:h2:mem:load_virtual;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL"
+})
+public class VirtualThreadCheckoutLoadTest extends CheckoutLoadScenario {
+
+    @Override
+    protected String modeName() {
+        return "virtual";
+    }
+}
@@ -4,6 +4,8 @@ import dk.dtu.backend.TestDataFactory;
 import dk.dtu.backend.persistence.entity.Address;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.AddressRepository;
+import dk.dtu.backend.persistence.repository.OrderRepository;
+import dk.dtu.backend.persistence.repository.UserRepository;
 import dk.dtu.backend.service.AddressService;
 import dk.dtu.backend.service.LoggingService;
 
@@ -27,6 +29,12 @@ public class AddressServiceTest {
     @Mock
     private AddressRepository addressRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
     @Mock
     private LoggingService loggingService;
 
@@ -81,4 +89,135 @@ public class AddressServiceTest {
         // Verify repository was called with correct parameter
         verify(addressRepository).findByUserId(testUser.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void contentHash_IgnoresCaseAndWhitespace() {
+        // Arrange
+        Address reformatted = TestDataFactory.createAddress();
+        reformatted.setCity(" " + reformatted.getCity().toUpperCase() + "  ");
+        reformatted.setAddress1(reformatted.getAddress1().replace(" ", "   "));
+
+        // Act & Assert
+        assertEquals(AddressService.contentHash(TestDataFactory.createAddress()), AddressService.contentHash(reformatted));
+        reformatted.setPostalCode("9999");
+        assertNotEquals(AddressService.contentHash(TestDataFactory.createAddress()), AddressService.contentHash(reformatted));
+    }
+
+    @Test
+    public void internAddress_NewContent_InsertsOnceThenServesFromCache() {
+        // Arrange
+        Address stored = TestDataFactory.createAddress();
+        stored.setId(5);
+        when(addressRepository.findByUserIdAndContentHash(eq(1), anyString())).thenReturn(Optional.empty());
+        when(addressRepository.findForUpdateByUserIdAndContentHash(eq(1), anyString())).thenReturn(Optional.empty());
+        when(addressRepository.save(any())).thenReturn(stored);
+        when(addressRepository.getReferenceById(5)).thenReturn(stored);
+
+        // Act
+        Address first = addressService.internAddress(testUser, TestDataFactory.createAddress());
+        Address second = addressService.internAddress(testUser, TestDataFactory.createAddress());
+
+        // Assert
+        assertEquals(5, first.getId());
+        assertSame(first, second);
+        verify(userRepository).lockById(1);
+        verify(addressRepository).save(argThat(address ->
+            address.getUser() == testUser && address.getContentHash() != null));
+        verify(addressRepository, times(1)).findByUserIdAndContentHash(eq(1), anyString());
+    }
+
+    @Test
+    public void internAddress_SameContentOtherUser_NotShared() {
+        // Arrange
+        User otherUser = TestDataFactory.createUser("other@example.com", "CUSTOMER");
+        otherUser.setId(2);
+        Address mine = TestDataFactory.createAddress();
+        mine.setId(5);
+        Address theirs = TestDataFactory.createAddress();
+        theirs.setId(6);
+        when(addressRepository.findByUserIdAndContentHash(eq(1), anyString())).thenReturn(Optional.of(mine));
+        when(addressRepository.findByUserIdAndContentHash(eq(2), anyString())).thenReturn(Optional.of(theirs));
+
+        // Act
+        addressService.internAddress(testUser, TestDataFactory.createAddress());
+        Address result = addressService.internAddress(otherUser, TestDataFactory.createAddress());
+
+        // Assert
+        assertEquals(6, result.getId());
+        verify(addressRepository, never()).save(any());
+    }
+
+    @Test
+    public void internAddress_Guest_SavesUnsharedRow() {
+        // Arrange
+        when(addressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Address result = addressService.internAddress(null, TestDataFactory.createAddress());
+
+        // Assert
+        assertNull(result.getUser());
+        assertNull(result.getContentHash());
+        verify(addressRepository, never()).findByUserIdAndContentHash(any(), anyString());
+    }
+
+    @Test
+    public void updateAddress_NotOrdered_EditsInPlace() {
+        // Arrange
+        Address edited = TestDataFactory.createAddress();
+        edited.setCity("Aarhus");
+        when(addressRepository.findById(1)).thenReturn(Optional.of(testAddress));
+        when(orderRepository.existsByAddressId(1)).thenReturn(false);
+        when(addressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Address result = addressService.updateAddress(1, edited).orElseThrow();
+
+        // Assert
+        assertSame(testAddress, result);
+        assertEquals("Aarhus", testAddress.getCity());
+    }
+
+    @Test
+    public void updateAddress_Ordered_CopiesAndLeavesOrderRowUnchanged() {
+        // Arrange
+        String originalCity = testAddress.getCity();
+        Address edited = TestDataFactory.createAddress();
+        edited.setCity("Aarhus");
+        when(addressRepository.findById(1)).thenReturn(Optional.of(testAddress));
+        when(orderRepository.existsByAddressId(1)).thenReturn(true);
+        when(addressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Address result = addressService.updateAddress(1, edited).orElseThrow();
+
+        // Assert
+        assertNotSame(testAddress, result);
+        assertEquals("Aarhus", result.getCity());
+        assertSame(testUser, result.getUser());
+        assertEquals(originalCity, testAddress.getCity());
+        assertNull(testAddress.getUser());
+    }
+
+    @Test
+    public void updateAddress_Interned_InternsEditedContentAsNewRow() {
+        // Arrange
+        String originalCity = testAddress.getCity();
+        testAddress.setContentHash(AddressService.contentHash(testAddress));
+        Address edited = TestDataFactory.createAddress();
+        edited.setCity("Aarhus");
+        when(addressRepository.findById(1)).thenReturn(Optional.of(testAddress));
+        when(addressRepository.findByUserIdAndContentHash(eq(1), anyString())).thenReturn(Optional.empty());
+        when(addressRepository.findForUpdateByUserIdAndContentHash(eq(1), anyString())).thenReturn(Optional.empty());
+        when(addressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Address result = addressService.updateAddress(1, edited).orElseThrow();
+
+        // Assert
+        assertNotSame(testAddress, result);
+        assertEquals(AddressService.contentHash(edited), result.getContentHash());
+        assertEquals(originalCity, testAddress.getCity());
+        verify(orderRepository, never()).existsByAddressId(any());
+    }
+}
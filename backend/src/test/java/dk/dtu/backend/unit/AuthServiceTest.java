@@ -1,10 +1,15 @@
 package dk.dtu.backend.unit;
 
 import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.persistence.entity.Artist;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.ArtistChangeEvent;
 import dk.dtu.backend.service.AuthService;
 import dk.dtu.backend.service.LoggingService;
+import dk.dtu.backend.service.PasswordHashingService;
+import dk.dtu.backend.service.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,12 +18,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.security.core.Authentication;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +44,9 @@ public class AuthServiceTest {
     @Mock
     private LoggingService loggingService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AuthService authService;
 
@@ -45,6 +56,11 @@ public class AuthServiceTest {
 
     @BeforeEach
     public void setup() {
+        ReflectionTestUtils.setField(authService, "passwordHashingService",
+            new PasswordHashingService(new SimpleMeterRegistry(), "bcrypt", 4, 1000, 1, 8));
+        ReflectionTestUtils.setField(authService, "principalCache",
+            new UserPrincipalCache(userRepository, new SimpleMeterRegistry(), Duration.ofMinutes(10), Duration.ofSeconds(30), 100));
+
         // Create test data once for all tests
         customerUser = TestDataFactory.createUser("customer@example.com", "CUSTOMER");
         existingUser = TestDataFactory.createUser("existing@example.com", "CUSTOMER");
@@ -116,6 +132,23 @@ public class AuthServiceTest {
         verify(loggingService).info(eq("User registration completed successfully"), anyMap());
     }
 
+    @Test
+    public void register_Artist_AnnouncesArtistToSearchIndex() {
+        User artistUser = TestDataFactory.createUser("painter@example.com", "ARTIST");
+        Artist artist = TestDataFactory.createArtist(artistUser);
+        artistUser.setArtist(artist);
+        when(userRepository.findByEmail(artistUser.getEmail())).thenReturn(Optional.empty());
+        // The cascade gives the artist its id
+        when(userRepository.save(artistUser)).thenAnswer(invocation -> {
+            artist.setId(42);
+            return artistUser;
+        });
+
+        assertTrue(authService.register(artistUser));
+
+        verify(eventPublisher).publishEvent(ArtistChangeEvent.of(42));
+    }
+
     @Test
     public void register_ExistingEmail_ReturnsFalse() {        
         when(userRepository.findByEmail(existingUser.getEmail())).thenReturn(Optional.of(existingUser));
@@ -171,4 +204,64 @@ public class AuthServiceTest {
         // Assert - Verify the flow is called
         verify(userRepository).findByEmail(customerUser.getEmail());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void register_WithPassword_StoresSaltedBcryptHash() {
+        when(userRepository.findByEmail(customerUser.getEmail())).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenReturn(customerUser);
+
+        // Act
+        authService.register(customerUser);
+
+        // Assert
+        assertTrue(customerUser.getPassword().startsWith("{bcrypt}$2a$04$"));
+    }
+
+    @Test
+    public void login_LegacySha256Hash_SucceedsAndRehashes() {
+        // SHA-256 of "password123", as stored before the switch
+        customerUser.setId(7);
+        customerUser.setPassword("ef92b778bafe771e89245b89ecbc08a44a4e166c06659911881f383d4473e94f");
+        when(userRepository.findByEmail(customerUser.getEmail())).thenReturn(Optional.of(customerUser));
+        when(userRepository.findById(7)).thenReturn(Optional.of(customerUser));
+
+        // Act
+        Optional<String> result = authService.login(customerUser.getEmail(), "password123");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertTrue(customerUser.getPassword().startsWith("{bcrypt}"));
+        verify(userRepository).save(customerUser);
+    }
+
+    @Test
+    public void login_RepeatedUnknownEmail_QueriesDatabaseOnce() {
+        String email = "nobody@example.com";
+        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            assertFalse(authService.login(email, "guess" + i).isPresent());
+        }
+
+        // Assert
+        verify(userRepository, times(1)).findByEmail(email);
+    }
+
+    @Test
+    public void register_AfterFailedLogin_NewUserCanLogIn() {
+        customerUser.setId(9);
+        when(userRepository.findByEmail(customerUser.getEmail()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(customerUser));
+        when(userRepository.save(any(User.class))).thenReturn(customerUser);
+
+        // Act: the failed login caches the miss, registration must drop it
+        assertFalse(authService.login(customerUser.getEmail(), "password123").isPresent());
+        assertTrue(authService.register(customerUser));
+        Optional<String> result = authService.login(customerUser.getEmail(), "password123");
+
+        // Assert
+        assertTrue(result.isPresent());
+    }
+}
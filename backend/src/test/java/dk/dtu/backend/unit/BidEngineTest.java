@@ -0,0 +1,181 @@
+package dk.dtu.backend.unit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.entity.Product;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.service.BidEngine;
+import dk.dtu.backend.service.BidEngine.BidResult;
+import dk.dtu.backend.service.LoggingService;
+import dk.dtu.backend.service.ProductChangeEvent;
+
+@ActiveProfiles("test")
+@ExtendWith(MockitoExtension.class)
+public class BidEngineTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private LoggingService loggingService;
+
+    @InjectMocks
+    private BidEngine bidEngine;
+
+    private Product product;
+
+    @BeforeEach
+    public void setup() {
+        Artist artist = TestDataFactory.createArtist(TestDataFactory.createUser("artist@example.com", "ARTIST"));
+        product = TestDataFactory.createProductWithId(7, artist, 500.0);
+    }
+
+    @Test
+    public void evaluate_RepeatedBids_ReadsDatabaseOnce() {
+        when(productRepository.findBidViewById(7)).thenReturn(Optional.of(bidView(product)));
+
+        assertEquals(BidResult.TOO_LOW, bidEngine.evaluate(7, 499.0));
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(7, 500.0));
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(7, 800.0));
+
+        verify(productRepository, times(1)).findBidViewById(7);
+    }
+
+    @Test
+    public void evaluate_AfterWarmUp_NeverReadsDatabase() {
+        ProductRepository.ProductBidView view = bidView(5000, 300.0, false);
+        when(productRepository.findBidViews()).thenReturn(List.of(view));
+
+        bidEngine.warmUp();
+
+        // Id beyond the initial table size forces a resize during warm-up
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(5000, 300.0));
+        verify(productRepository, never()).findBidViewById(5000);
+    }
+
+    @Test
+    public void onProductChange_Sold_RejectsFurtherBids() {
+        when(productRepository.findBidViewById(7)).thenReturn(Optional.of(bidView(product)));
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(7, 600.0));
+
+        bidEngine.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.SOLD, 7));
+
+        assertEquals(BidResult.SOLD, bidEngine.evaluate(7, 600.0));
+    }
+
+    @Test
+    public void onProductChange_Updated_UsesNewSecretPrice() {
+        when(productRepository.findBidViewById(7)).thenReturn(Optional.of(bidView(product)));
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(7, 600.0));
+
+        product.setSecretPrice(900.0);
+        when(productRepository.findBidViewsByIds(List.of(7))).thenReturn(List.of(bidView(product)));
+        bidEngine.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, 7));
+
+        assertEquals(BidResult.TOO_LOW, bidEngine.evaluate(7, 600.0));
+    }
+
+    @Test
+    public void evaluate_UnknownProduct_RemembersMiss() {
+        when(productRepository.findBidViewById(42)).thenReturn(Optional.empty());
+
+        assertEquals(BidResult.NOT_FOUND, bidEngine.evaluate(42, 100.0));
+        assertEquals(BidResult.NOT_FOUND, bidEngine.evaluate(42, 100.0));
+
+        verify(productRepository, times(1)).findBidViewById(42);
+    }
+
+    @Test
+    public void evaluate_SoldByAnotherInstance_SeenAfterTtl() throws InterruptedException {
+        ReflectionTestUtils.setField(bidEngine, "stateTtl", Duration.ofMillis(50));
+        Product soldElsewhere = TestDataFactory.createProductWithId(7, product.getArtist(), 500.0);
+        soldElsewhere.setSold(true);
+        when(productRepository.findBidViewById(7))
+            .thenReturn(Optional.of(bidView(product)))
+            .thenReturn(Optional.of(bidView(soldElsewhere)));
+
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(7, 600.0));
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(7, 600.0));
+        Thread.sleep(100);
+
+        assertEquals(BidResult.SOLD, bidEngine.evaluate(7, 600.0));
+        verify(productRepository, times(2)).findBidViewById(7);
+    }
+
+    @Test
+    public void evaluate_CreatedByAnotherInstance_MissExpires() throws InterruptedException {
+        ReflectionTestUtils.setField(bidEngine, "stateTtl", Duration.ofMillis(50));
+        when(productRepository.findBidViewById(7))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(bidView(product)));
+
+        assertEquals(BidResult.NOT_FOUND, bidEngine.evaluate(7, 600.0));
+        Thread.sleep(100);
+
+        assertEquals(BidResult.ACCEPTED, bidEngine.evaluate(7, 600.0));
+    }
+
+    @Test
+    public void evaluate_ConcurrentBidsOnColdProduct_ShareOneRead() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findBidViewById(7)).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(bidView(product));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        Future<BidResult> first = executor.submit(() -> bidEngine.evaluate(7, 600.0));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        List<Future<BidResult>> waiting = List.of(
+            executor.submit(() -> bidEngine.evaluate(7, 600.0)),
+            executor.submit(() -> bidEngine.evaluate(7, 400.0)));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(BidResult.ACCEPTED, first.get(5, TimeUnit.SECONDS));
+        assertEquals(BidResult.ACCEPTED, waiting.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(BidResult.TOO_LOW, waiting.get(1).get(5, TimeUnit.SECONDS));
+        verify(productRepository, times(1)).findBidViewById(7);
+        executor.shutdown();
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private static ProductRepository.ProductBidView bidView(Product product) {
+        return bidView(product.getId(), product.getSecretPrice(), product.isSold());
+    }
+
+    private static ProductRepository.ProductBidView bidView(Integer id, double secretPrice, boolean sold) {
+        return new ProductRepository.ProductBidView() {
+            public Integer getId() { return id; }
+            public double getSecretPrice() { return secretPrice; }
+            public boolean isSold() { return sold; }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package dk.dtu.backend.unit;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dk.dtu.backend.service.AuthMetrics;
+import dk.dtu.backend.service.CheckoutMetrics;
+import dk.dtu.backend.service.CheckoutMetrics.BidFailure;
+import dk.dtu.backend.service.CheckoutMetrics.OrderFailure;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+public class CheckoutMetricsTest {
+
+    private MockClock clock;
+    private SimpleMeterRegistry registry;
+    private CheckoutMetrics checkoutMetrics;
+
+    @BeforeEach
+    public void setup() {
+        clock = new MockClock();
+        registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        checkoutMetrics = new CheckoutMetrics(registry);
+        new AuthMetrics(registry);
+    }
+
+    @Test
+    public void constructor_PreRegistersEveryOutcomeAtZero() {
+        assertEquals(BidFailure.values().length, registry.find("checkout.bid").tag("success", "false").counters().size());
+        assertEquals(0.0, registry.get("checkout.bid").tag("reason", "bid_too_low").counter().count());
+        assertEquals(0.0, registry.get("checkout.order").tag("reason", "product_sold").counter().count());
+        assertEquals(0.0, registry.get("auth.login").tag("reason", "invalid_credentials").counter().count());
+        assertEquals(0.0, registry.get("auth.register").tag("success", "true").counter().count());
+    }
+
+    @Test
+    public void bidAccepted_SubMillisecondRequest_KeepsNanosecondPrecision() {
+        Timer.Sample sample = checkoutMetrics.start();
+        clock.add(250, TimeUnit.MICROSECONDS);
+
+        checkoutMetrics.bidAccepted(sample);
+
+        Timer timer = registry.get("checkout.bid.duration").tag("success", "true").timer();
+        assertEquals(1, timer.count());
+        assertEquals(250_000.0, timer.totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(1.0, registry.get("checkout.bid").tag("success", "true").counter().count());
+    }
+
+    @Test
+    public void orderFailed_CountsReasonAndTimesAsFailure() {
+        Timer.Sample sample = checkoutMetrics.start();
+        clock.add(3, TimeUnit.MILLISECONDS);
+
+        checkoutMetrics.orderFailed(OrderFailure.PAYMENT_UNAVAILABLE, sample);
+
+        assertEquals(1.0, registry.get("checkout.order").tag("reason", "payment_unavailable").counter().count());
+        assertEquals(1, registry.get("checkout.order.duration").tag("success", "false").timer().count());
+        assertEquals(0, registry.get("checkout.order.duration").tag("success", "true").timer().count());
+    }
+
+    @Test
+    public void durations_PublishPercentileHistograms() {
+        // The simple registry keeps no buckets; check what Prometheus actually scrapes
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        CheckoutMetrics scraped = new CheckoutMetrics(prometheus);
+        new AuthMetrics(prometheus);
+
+        scraped.bidAccepted(scraped.start());
+        String scrape = prometheus.scrape();
+
+        assertTrue(scrape.contains("checkout_bid_duration_seconds_bucket{"));
+        assertTrue(scrape.contains("checkout_order_duration_seconds_bucket{"));
+        assertTrue(scrape.contains("auth_register_duration_seconds_bucket{"));
+    }
+}
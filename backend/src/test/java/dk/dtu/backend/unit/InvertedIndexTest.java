@@ -0,0 +1,58 @@
+package dk.dtu.backend.unit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dk.dtu.backend.utils.InvertedIndex;
+
+public class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new InvertedIndex();
+        index.put(3, InvertedIndex.tokenize("Blue Harbour", "Oil on canvas"));
+        index.put(1, InvertedIndex.tokenize("Blue Nude", "Bronze"));
+        index.put(2, InvertedIndex.tokenize("Harbour at dusk", "Watercolour"));
+    }
+
+    @Test
+    public void tokenize_MixedCaseAccentsAndPunctuation_NormalizedWords() {
+        assertEquals(List.of("cafe", "de", "l", "ete", "120", "x", "80", "cm"),
+            InvertedIndex.tokenize("Café de l'Été", "120 x 80 cm"));
+    }
+
+    @Test
+    public void match_AllTokensRequired_LastOneAsPrefix() {
+        assertArrayEquals(new int[] { 1, 3 }, index.match(InvertedIndex.tokenize("blue")));
+        assertArrayEquals(new int[] { 3 }, index.match(InvertedIndex.tokenize("blue harb")));
+        assertArrayEquals(new int[] { 2, 3 }, index.match(InvertedIndex.tokenize("harbour")));
+        assertArrayEquals(new int[0], index.match(InvertedIndex.tokenize("bronze harbour")));
+    }
+
+    @Test
+    public void put_ExistingDocument_ReplacesItsTerms() {
+        index.put(3, InvertedIndex.tokenize("Red Harbour"));
+
+        assertArrayEquals(new int[] { 1 }, index.match(InvertedIndex.tokenize("blue")));
+        assertArrayEquals(new int[] { 3 }, index.match(InvertedIndex.tokenize("red")));
+
+        index.remove(3);
+        assertFalse(index.contains(3));
+        assertEquals(List.of(), index.complete("re", 5));
+    }
+
+    @Test
+    public void complete_Prefix_MostFrequentTermsFirst() {
+        index.put(4, InvertedIndex.tokenize("Bluebird"));
+
+        assertEquals(List.of("blue", "bluebird", "bronze"), index.complete("b", 5));
+        assertEquals(List.of("blue"), index.complete("b", 1));
+    }
+}
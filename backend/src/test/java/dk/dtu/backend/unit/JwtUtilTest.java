@@ -0,0 +1,56 @@
+package dk.dtu.backend.unit;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import dk.dtu.backend.utils.JwtPrincipal;
+import dk.dtu.backend.utils.JwtUtil;
+import io.jsonwebtoken.JwtException;
+
+public class JwtUtilTest {
+
+    @Test
+    public void parse_ValidToken_ReturnsAllClaims() {
+        String token = JwtUtil.generateToken("customer@example.com", "CUSTOMER", 42);
+
+        Optional<JwtPrincipal> principal = JwtUtil.parse(token);
+
+        assertTrue(principal.isPresent());
+        assertEquals("customer@example.com", principal.get().email());
+        assertEquals("CUSTOMER", principal.get().role());
+        assertEquals(42, principal.get().userId());
+        assertFalse(principal.get().isExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void parse_SameTokenTwice_ReturnsCachedPrincipal() {
+        String token = JwtUtil.generateToken("artist@example.com", "ARTIST", 7);
+
+        JwtPrincipal first = JwtUtil.parse(token).orElseThrow();
+        JwtPrincipal second = JwtUtil.parse(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void parse_TamperedSignature_ReturnsEmpty() {
+        String token = JwtUtil.generateToken("customer@example.com", "CUSTOMER", 42);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertFalse(JwtUtil.parse(tampered).isPresent());
+        assertFalse(JwtUtil.validateToken(tampered));
+        assertThrows(JwtException.class, () -> JwtUtil.getEmailFromToken(tampered));
+    }
+
+    @Test
+    public void parse_MissingToken_ReturnsEmpty() {
+        assertFalse(JwtUtil.parse(null).isPresent());
+        assertFalse(JwtUtil.parse("").isPresent());
+    }
+}
@@ -0,0 +1,68 @@
+package dk.dtu.backend.unit;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import dk.dtu.backend.service.LoggingService;
+
+public class LoggingServiceTest {
+
+    private final LoggingService loggingService = new LoggingService();
+
+    private Logger appLogger;
+    private Level previousLevel;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    public void setup() {
+        appLogger = (Logger) LoggerFactory.getLogger("AppLogger");
+        previousLevel = appLogger.getLevel();
+        appender = new ListAppender<>();
+        appender.start();
+        appLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        appLogger.detachAppender(appender);
+        appLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    public void info_WithFields_AttachesMarkerWithoutTouchingMdc() {
+        appLogger.setLevel(Level.INFO);
+
+        loggingService.info("Order placed", Map.of("orderId", "17"));
+
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals("Order placed", event.getFormattedMessage());
+        assertNotNull(event.getMarkerList());
+        assertTrue(event.getMarkerList().get(0).toString().contains("orderId=17"));
+        assertNull(MDC.get("orderId"));
+        assertTrue(event.getMDCPropertyMap().isEmpty() || !event.getMDCPropertyMap().containsKey("orderId"));
+    }
+
+    @Test
+    public void debug_BelowLevel_EmitsNothing() {
+        appLogger.setLevel(Level.INFO);
+
+        loggingService.debug("Per-item detail", Map.of("productId", "3"));
+
+        assertTrue(appender.list.isEmpty());
+        assertTrue(!loggingService.isDebugEnabled());
+    }
+}
@@ -0,0 +1,149 @@
+package dk.dtu.backend.unit;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import dk.dtu.backend.config.MetricsConfig;
+import dk.dtu.backend.service.MetricService;
+import dk.dtu.backend.utils.MetricsFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+public class MetricCardinalityTest {
+
+    private static final int SOAK_REQUESTS = 1_000_000;
+    private static final int REQUESTS = 10_000;
+    private static final String[] ROUTES = { "/api/products/{id}", "/api/products/available", "/api/checkout/bid", null };
+    private static final int[] STATUSES = { 200, 201, 400, 404, 409, 503 };
+
+    private SimpleMeterRegistry registry;
+    private MetricService metricService;
+    private MetricsFilter metricsFilter;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        metricService = new MetricService(registry);
+        metricsFilter = new MetricsFilter();
+        ReflectionTestUtils.setField(metricsFilter, "metricService", metricService);
+    }
+
+    @Test
+    public void requests_RandomIdsAndCorrelationIds_RegistrySizeStaysConstant() throws Exception {
+        assertRegistryConstant(REQUESTS);
+    }
+
+    @Tag("load")
+    @Test
+    public void soak_RandomIdsAndCorrelationIds_RegistrySizeStaysConstant() throws Exception {
+        assertRegistryConstant(SOAK_REQUESTS);
+    }
+
+    @Test
+    public void registerRoutes_BeforeAnyRequest_EnumeratesEverySeries() {
+        metricsFilter.registerRoutes(Map.of("/api/products/{id}", Set.of("GET", "DELETE")));
+
+        // (2 methods on the route + 5 on UNMAPPED) x 3 status classes
+        assertEquals(21, registry.find("http.requests.total").counters().size());
+        assertNotNull(registry.find("http.request.duration")
+            .tags("route", "/api/products/{id}", "method", "DELETE", "status", "4xx").timer());
+    }
+
+    @Test
+    public void requestDuration_HistogramOnlyOnHotRoutes() {
+        // The simple registry keeps no buckets; check what Prometheus actually scrapes
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        prometheus.config().meterFilter(new MetricsConfig().requestHistogramsOnHotRoutes(Set.of("/api/products/{id}")));
+        MetricsFilter filter = new MetricsFilter();
+        ReflectionTestUtils.setField(filter, "metricService", new MetricService(prometheus));
+
+        filter.registerRoutes(Map.of(
+            "/api/products/{id}", Set.of("GET"),
+            "/api/products/catalog", Set.of("GET")));
+
+        String scrape = prometheus.scrape();
+        assertTrue(bucketCount(scrape, "/api/products/{id}") > 3);
+        assertEquals(4, bucketCount(scrape, "/api/products/catalog"));
+    }
+
+    @Test
+    public void incrementCounter_UnknownTagKey_IsDropped() {
+        metricService.incrementCounter("checkout.bid", "success", "true", "correlationId", "abc-123");
+
+        assertNotNull(registry.find("checkout.bid").tag("success", "true").counter());
+        assertNull(registry.find("checkout.bid").tagKeys("correlationId").counter());
+    }
+
+    @Test
+    public void incrementCounter_TooManyValues_FoldsIntoOther() {
+        for (int i = 0; i < 500; i++) {
+            metricService.incrementCounter("catalog.probe", "reason", "value_" + i);
+        }
+
+        assertTrue(registry.find("catalog.probe").counters().size() <= 65);
+        assertTrue(registry.find("catalog.probe").tag("reason", "other").counter().count() > 0);
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private void assertRegistryConstant(int requests) throws Exception {
+        Random random = new Random(42);
+
+        // HTTP series come from the mappings at startup; one pass registers the business counter's few series
+        metricsFilter.registerRoutes(Map.of(
+            "/api/products/{id}", Set.of("GET"),
+            "/api/products/available", Set.of("GET"),
+            "/api/checkout/bid", Set.of("GET")));
+        request(ROUTES[0], 200, 1, UUID.randomUUID().toString());
+        int seriesAfterStartup = registry.getMeters().size();
+
+        for (int i = 0; i < requests; i++) {
+            String route = ROUTES[random.nextInt(ROUTES.length)];
+            int status = STATUSES[random.nextInt(STATUSES.length)];
+            request(route, status, random.nextInt(), Long.toHexString(random.nextLong()));
+        }
+
+        assertEquals(seriesAfterStartup, registry.getMeters().size());
+    }
+
+    // Bucket lines of one route's 2xx series, +Inf included
+    private static long bucketCount(String scrape, String route) {
+        return scrape.lines()
+            .filter(line -> line.startsWith("http_request_duration_seconds_bucket{"))
+            .filter(line -> line.contains("route=\"" + route + "\"") && line.contains("status=\"2xx\""))
+            .count();
+    }
+
+    private void request(String route, int status, int productId, String correlationId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/" + productId);
+        request.addHeader("X-Correlation-ID", correlationId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FilterChain chain = (req, res) -> {
+            if (route != null) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+            }
+            ((MockHttpServletResponse) res).setStatus(status);
+            // Business code tags by outcome; the stray correlationId must never become a series
+            metricService.incrementCounter("checkout.bid", "success", "false", "reason", "bid_too_low",
+                "correlationId", correlationId);
+        };
+        metricsFilter.doFilter(request, response, chain);
+    }
+}
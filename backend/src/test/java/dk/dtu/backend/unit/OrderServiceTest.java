@@ -1,7 +1,10 @@
 package dk.dtu.backend.unit;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -14,22 +17,33 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
 import dk.dtu.backend.TestDataFactory;
 import dk.dtu.backend.dto.CartItemDTO;
 import dk.dtu.backend.persistence.entity.Address;
 import dk.dtu.backend.persistence.entity.Artist;
 import dk.dtu.backend.persistence.entity.Order;
+import dk.dtu.backend.persistence.entity.OrderItem;
 import dk.dtu.backend.persistence.entity.Product;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.OrderRepository;
 import dk.dtu.backend.service.AddressService;
+import dk.dtu.backend.service.CheckoutIdempotencyStore;
 import dk.dtu.backend.service.LoggingService;
 import dk.dtu.backend.service.OrderService;
+import dk.dtu.backend.service.PaymentIntentConflictException;
 import dk.dtu.backend.service.PaymentService;
+import dk.dtu.backend.service.PaymentUnavailableException;
+import dk.dtu.backend.service.ProductAlreadySoldException;
 import dk.dtu.backend.service.ProductService;
 
 @ActiveProfiles("test")
@@ -64,6 +78,9 @@ public class OrderServiceTest {
 
     @BeforeEach
     public void setup() {
+        ReflectionTestUtils.setField(orderService, "transactionOperations", TransactionOperations.withoutTransaction());
+        ReflectionTestUtils.setField(orderService, "idempotencyStore", new CheckoutIdempotencyStore());
+
         // Create test data once for all tests
         customer = TestDataFactory.createUser("customer@example.com", "CUSTOMER");
         address = TestDataFactory.createAddress();
@@ -83,11 +100,11 @@ public class OrderServiceTest {
     @Test
     public void placeOrder_ValidOrder_ReturnsOrder() {
         // Arrange
-        when(paymentService.validatePayment("valid-payment")).thenReturn(true);
+        when(paymentService.validatePaymentAsync("valid-payment")).thenReturn(CompletableFuture.completedFuture(true));
         //when(addressService.findByAddressFields(any(), any(), any())).thenReturn(Optional.empty());
-        when(addressService.saveAddress(any())).thenReturn(address);
+        when(addressService.internAddress(any(), any())).thenReturn(address);
         when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(productService.getProductById(1)).thenReturn(Optional.of(availableProduct));
+        when(productService.getProductsByIds(List.of(1))).thenReturn(List.of(availableProduct));
 
         // Act
         Order result = orderService.placeOrder(
@@ -100,12 +117,34 @@ public class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
+        assertEquals(1, result.getOrderItems().size());
+        verify(orderRepository, times(1)).save(any());
+        verify(productService, never()).saveProduct(any());
+    }
+
+    @Test
+    public void placeOrder_ProductNotFound_ThrowsException() {
+        // Arrange
+        when(paymentService.validatePaymentAsync("valid-payment")).thenReturn(CompletableFuture.completedFuture(true));
+        when(productService.getProductsByIds(List.of(999))).thenReturn(List.of());
+        doThrow(new IllegalArgumentException("Product not found: [999]")).when(productService).markSold(List.of(999));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            orderService.placeOrder(
+                customer, 
+                invalidCart, 
+                address, 
+                "valid-payment", 
+                customer.getEmail()
+            );
+        });
     }
 
     @Test
     public void placeOrder_PaymentValidationFails_ThrowsException() {
         // Arrange
-        when(paymentService.validatePayment("invalid-payment")).thenReturn(false);
+        when(paymentService.validatePaymentAsync("invalid-payment")).thenReturn(CompletableFuture.completedFuture(false));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> {
@@ -119,6 +158,148 @@ public class OrderServiceTest {
         });
     }
 
+    @Test
+    public void placeOrder_ProductAlreadySold_ThrowsConflict() {
+        // Arrange
+        when(paymentService.validatePaymentAsync("valid-payment")).thenReturn(CompletableFuture.completedFuture(true));
+        doThrow(new ProductAlreadySoldException(List.of(1))).when(productService).markSold(List.of(1));
+
+        // Act & Assert
+        assertThrows(ProductAlreadySoldException.class, () -> {
+            orderService.placeOrder(
+                customer, 
+                validCart, 
+                address, 
+                "valid-payment", 
+                customer.getEmail()
+            );
+        });
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void placeOrder_PaymentProviderUnavailable_NothingPersisted() {
+        // Arrange
+        when(paymentService.validatePaymentAsync("valid-payment"))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentUnavailableException("Payment provider unreachable", null)));
+
+        // Act & Assert
+        assertThrows(PaymentUnavailableException.class, () -> {
+            orderService.placeOrder(
+                customer, 
+                validCart, 
+                address, 
+                "valid-payment", 
+                customer.getEmail()
+            );
+        });
+        verify(productService, never()).markSold(any());
+    }
+
+    @Test
+    public void placeOrder_SamePaymentIntentTwice_ReturnsOriginalOrder() {
+        // Arrange
+        when(paymentService.validatePaymentAsync("valid-payment")).thenReturn(CompletableFuture.completedFuture(true));
+        when(addressService.internAddress(any(), any())).thenReturn(address);
+        when(productService.getProductsByIds(List.of(1))).thenReturn(List.of(availableProduct));
+        when(orderRepository.save(any())).thenAnswer(invocation -> {
+            Order saved = invocation.getArgument(0);
+            saved.setId(42);
+            return saved;
+        });
+
+        Order first = orderService.placeOrder(customer, validCart, address, "valid-payment", customer.getEmail());
+        when(orderRepository.findWithItemsById(42)).thenReturn(Optional.of(first));
+
+        // Act
+        Order replayed = orderService.placeOrder(customer, validCart, address, "valid-payment", customer.getEmail());
+
+        // Assert
+        assertEquals(first, replayed);
+        assertEquals("valid-payment", first.getPaymentIntentId());
+        verify(paymentService, times(1)).validatePaymentAsync("valid-payment");
+        verify(productService, times(1)).markSold(List.of(1));
+        verify(orderRepository, times(1)).save(any());
+    }
+
+    @Test
+    public void placeOrder_PaymentIntentAlreadyPersisted_ReplaysWithoutPayment() {
+        // Arrange
+        Order existing = persistedOrder(7, customer, availableProduct);
+        when(orderRepository.findIdByPaymentIntentId("valid-payment")).thenReturn(Optional.of(7));
+        when(orderRepository.findWithItemsById(7)).thenReturn(Optional.of(existing));
+
+        // Act
+        Order result = orderService.placeOrder(customer, validCart, address, "valid-payment", customer.getEmail());
+
+        // Assert
+        assertEquals(existing, result);
+        verify(paymentService, never()).validatePaymentAsync(any());
+        verify(productService, never()).markSold(any());
+    }
+
+    @Test
+    public void placeOrder_PaymentIntentOfOtherUser_ThrowsConflict() {
+        // Arrange
+        User otherCustomer = TestDataFactory.createUser("other@example.com", "CUSTOMER");
+        otherCustomer.setId(2);
+        customer.setId(1);
+        when(orderRepository.findIdByPaymentIntentId("valid-payment")).thenReturn(Optional.of(7));
+        when(orderRepository.findWithItemsById(7)).thenReturn(Optional.of(persistedOrder(7, otherCustomer, availableProduct)));
+
+        // Act & Assert
+        assertThrows(PaymentIntentConflictException.class, () ->
+            orderService.placeOrder(customer, validCart, address, "valid-payment", customer.getEmail()));
+        verify(paymentService, never()).validatePaymentAsync(any());
+    }
+
+    @Test
+    public void placeOrder_PaymentIntentOfOtherCart_ThrowsConflict() {
+        // Arrange
+        when(orderRepository.findIdByPaymentIntentId("valid-payment")).thenReturn(Optional.of(7));
+        when(orderRepository.findWithItemsById(7)).thenReturn(Optional.of(persistedOrder(7, customer, availableProduct)));
+
+        // Act & Assert
+        assertThrows(PaymentIntentConflictException.class, () ->
+            orderService.placeOrder(customer, invalidCart, address, "valid-payment", customer.getEmail()));
+        verify(productService, never()).markSold(any());
+    }
+
+    @Test
+    public void placeOrder_OriginalCheckoutStuck_ReplayTimesOut() {
+        // Arrange
+        ReflectionTestUtils.setField(orderService, "replayTimeout", Duration.ofMillis(50));
+        CheckoutIdempotencyStore store = new CheckoutIdempotencyStore();
+        store.claim("valid-payment", new CompletableFuture<>());
+        ReflectionTestUtils.setField(orderService, "idempotencyStore", store);
+
+        // Act & Assert
+        assertThrows(PaymentIntentConflictException.class, () ->
+            orderService.placeOrder(customer, validCart, address, "valid-payment", customer.getEmail()));
+        verify(paymentService, never()).validatePaymentAsync(any());
+    }
+
+    @Test
+    public void placeOrder_FailedAttempt_SamePaymentIntentCanRetry() {
+        // Arrange
+        when(paymentService.validatePaymentAsync("valid-payment"))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentUnavailableException("Payment provider unreachable", null)))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(addressService.internAddress(any(), any())).thenReturn(address);
+        when(productService.getProductsByIds(List.of(1))).thenReturn(List.of(availableProduct));
+        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThrows(PaymentUnavailableException.class, () ->
+            orderService.placeOrder(customer, validCart, address, "valid-payment", customer.getEmail()));
+
+        // Act
+        Order result = orderService.placeOrder(customer, validCart, address, "valid-payment", customer.getEmail());
+
+        // Assert
+        assertNotNull(result);
+        verify(paymentService, times(2)).validatePaymentAsync("valid-payment");
+    }
+
     @Test
     public void getAllOrders_ReturnsOrderList() {
         // Arrange
@@ -158,4 +339,14 @@ public class OrderServiceTest {
         // Assert
         assertFalse(result.isPresent());
     }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private Order persistedOrder(Integer id, User user, Product product) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user);
+        order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, 600.0))));
+        return order;
+    }
 }
\ No newline at end of file
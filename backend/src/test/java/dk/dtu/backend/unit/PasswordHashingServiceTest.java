@@ -0,0 +1,111 @@
+package dk.dtu.backend.unit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dk.dtu.backend.service.PasswordHashingBusyException;
+import dk.dtu.backend.service.PasswordHashingService;
+import dk.dtu.backend.service.PasswordHashingService.Verification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void encode_SamePasswordTwice_DifferentSaltedHashes() {
+        PasswordHashingService service = service("bcrypt", 4, 1, 8);
+
+        String first = service.encode("password123");
+        String second = service.encode("password123");
+
+        assertNotEquals(first, second);
+        assertTrue(service.verify("password123", first).matches());
+        assertFalse(service.verify("wrong", first).matches());
+    }
+
+    @Test
+    public void verify_CurrentParameters_NoUpgrade() {
+        PasswordHashingService service = service("bcrypt", 4, 1, 8);
+
+        Verification verification = service.verify("password123", service.encode("password123"));
+
+        assertTrue(verification.matches());
+        assertNull(verification.upgradedHash());
+    }
+
+    @Test
+    public void verify_HashFromOlderSettings_ReturnsUpgradedHash() {
+        String pbkdf2Hash = service("pbkdf2", 4, 1, 8).encode("password123");
+        String weakBcryptHash = service("bcrypt", 4, 1, 8).encode("password123");
+        PasswordHashingService current = service("bcrypt", 5, 1, 8);
+
+        Verification fromPbkdf2 = current.verify("password123", pbkdf2Hash);
+        Verification fromWeakBcrypt = current.verify("password123", weakBcryptHash);
+
+        assertTrue(fromPbkdf2.matches());
+        assertTrue(fromPbkdf2.upgradedHash().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(fromWeakBcrypt.upgradedHash().startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    public void verify_NoStoredHash_CostsAsMuchAsWrongPassword() {
+        PasswordHashingService service = service("bcrypt", 10, 1, 8);
+        String hash = service.encode("password123");
+        // Warm up, including the one-off dummy hash
+        service.verify("wrong", hash);
+        service.verify("wrong", null);
+
+        long wrongPassword = timeVerify(service, hash);
+        long noHash = timeVerify(service, null);
+
+        assertFalse(service.verify("password123", null).matches());
+        assertTrue(noHash > wrongPassword / 2, "no-hash verify took " + noHash + "ns vs " + wrongPassword + "ns");
+    }
+
+    @Test
+    public void verifyAsync_PoolAndQueueFull_RejectsImmediately() {
+        // One worker, one queue slot: the third concurrent request has nowhere to wait
+        PasswordHashingService service = service("bcrypt", 12, 1, 1);
+        String hash = service("bcrypt", 4, 1, 8).encode("password123");
+
+        CompletableFuture<Verification> running = service.verifyAsync("password123", hash);
+        CompletableFuture<Verification> queued = service.verifyAsync("password123", hash);
+        CompletionException error = assertThrows(CompletionException.class,
+            () -> service.verifyAsync("password123", hash).join());
+
+        assertInstanceOf(PasswordHashingBusyException.class, error.getCause());
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+        assertTrue(running.join().matches());
+        assertTrue(queued.join().matches());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private long timeVerify(PasswordHashingService service, String storedHash) {
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            service.verify("wrong", storedHash);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private PasswordHashingService service(String algorithm, int bcryptStrength, int threads, int queueCapacity) {
+        return new PasswordHashingService(registry, algorithm, bcryptStrength, 1000, threads, queueCapacity);
+    }
+}
@@ -0,0 +1,155 @@
+package dk.dtu.backend.unit;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dk.dtu.backend.service.PaymentGatewayBusyException;
+import dk.dtu.backend.service.PaymentGatewayClient;
+import dk.dtu.backend.service.PaymentService;
+import dk.dtu.backend.service.PaymentUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PaymentGatewayClientTest {
+
+    private HttpServer provider;
+    private SimpleMeterRegistry registry;
+
+    // Responses the stub will send, in order; the last one repeats
+    private volatile int[] statuses;
+    private volatile long delayMillis;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() throws IOException {
+        registry = new SimpleMeterRegistry();
+        statuses = new int[] { 200 };
+        delayMillis = 0;
+
+        provider = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        provider.createContext("/validate", this::respond);
+        provider.setExecutor(Executors.newCachedThreadPool());
+        provider.start();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        provider.stop(0);
+    }
+
+    @Test
+    public void validate_ProviderApproves_ReturnsTrueAndRecordsLatency() {
+        PaymentGatewayClient client = client(3, 64, Duration.ofSeconds(2));
+
+        assertTrue(client.validate("token").join());
+        assertEquals(1, registry.get("payment.gateway.duration").tag("outcome", "approved").timer().count());
+        assertEquals(0.0, registry.get("payment.gateway.in_flight").gauge().value());
+    }
+
+    @Test
+    public void validate_TransientUnavailable_RetriesThenSucceeds() {
+        statuses = new int[] { 503, 503, 200 };
+        PaymentGatewayClient client = client(3, 64, Duration.ofSeconds(2));
+
+        assertTrue(client.validate("token").join());
+        assertEquals(3, calls.get());
+        assertEquals(2.0, registry.get("payment.gateway.retries").counter().count());
+    }
+
+    @Test
+    public void validate_StillUnavailableAfterMaxAttempts_Declines() {
+        statuses = new int[] { 503 };
+        PaymentGatewayClient client = client(2, 64, Duration.ofSeconds(2));
+
+        assertFalse(client.validate("token").join());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void validate_ReadTimeout_FailsWithoutRetry() {
+        delayMillis = 1500;
+        PaymentGatewayClient client = client(3, 64, Duration.ofMillis(300));
+
+        CompletionException error = assertThrows(CompletionException.class, () -> client.validate("token").join());
+
+        assertInstanceOf(PaymentUnavailableException.class, error.getCause());
+        assertEquals(1, calls.get());
+        assertEquals(1, registry.get("payment.gateway.duration").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    public void validate_AllCallSlotsBusy_RejectsImmediately() {
+        delayMillis = 500;
+        PaymentGatewayClient client = client(1, 1, Duration.ofSeconds(2));
+
+        CompletableFuture<Boolean> first = client.validate("token");
+        CompletionException error = assertThrows(CompletionException.class, () -> client.validate("other").join());
+
+        assertInstanceOf(PaymentGatewayBusyException.class, error.getCause());
+        assertEquals(1.0, registry.get("payment.gateway.saturated").counter().count());
+        assertTrue(first.join());
+    }
+
+    @Test
+    public void validatePayment_LocalSaturation_DoesNotOpenCircuit() {
+        PaymentGatewayClient client = mock(PaymentGatewayClient.class);
+        when(client.validate(anyString())).thenAnswer(invocation ->
+            CompletableFuture.failedFuture(new PaymentGatewayBusyException("Payment provider busy")));
+        PaymentService paymentService = new PaymentService(client, Duration.ofSeconds(2));
+
+        for (int i = 0; i < 30; i++) {
+            assertThrows(PaymentGatewayBusyException.class, () -> paymentService.validatePayment("token"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, paymentService.getCircuitState());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private PaymentGatewayClient client(int maxAttempts, int maxConcurrentCalls, Duration readTimeout) {
+        return new PaymentGatewayClient(new ObjectMapper(), registry,
+            "http://localhost:" + provider.getAddress().getPort() + "/validate",
+            Duration.ofSeconds(1), readTimeout, maxAttempts, Duration.ofMillis(10), maxConcurrentCalls);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        int call = calls.getAndIncrement();
+        int[] planned = statuses;
+        int status = planned[Math.min(call, planned.length - 1)];
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] body = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package dk.dtu.backend.unit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.service.CatalogSnapshot;
+import dk.dtu.backend.service.MetricService;
+import dk.dtu.backend.service.ProductCatalogCache;
+import dk.dtu.backend.service.ProductChangeEvent;
+
+@ActiveProfiles("test")
+@ExtendWith(MockitoExtension.class)
+public class ProductCatalogCacheTest {
+
+    @Mock
+    private MetricService metricService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ProductCatalogCache productCatalogCache;
+
+    private AtomicInteger loads;
+    private List<ProductDTO> catalog;
+
+    @BeforeEach
+    public void setup() {
+        loads = new AtomicInteger();
+        catalog = List.of(createDTO(1), createDTO(2), createDTO(3));
+    }
+
+    @Test
+    public void getAvailableProducts_SecondCall_ServedFromCache() {
+        productCatalogCache.getAvailableProducts(this::load);
+        List<ProductDTO> result = productCatalogCache.getAvailableProducts(this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(3, result.size());
+        verify(metricService).incrementCounter("products.catalog.cache", "result", "hit");
+    }
+
+    @Test
+    public void onProductChange_Updated_ReloadsOnNextRead() {
+        productCatalogCache.getAvailableProducts(this::load);
+
+        productCatalogCache.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, 2));
+        productCatalogCache.getAvailableProducts(this::load);
+
+        assertEquals(2, loads.get());
+        verify(metricService).incrementCounter("products.catalog.cache", "result", "eviction");
+    }
+
+    @Test
+    public void onProductChange_Sold_PatchesCachedListWithoutReload() {
+        productCatalogCache.getAvailableProducts(this::load);
+
+        productCatalogCache.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.SOLD, 2));
+        List<ProductDTO> result = productCatalogCache.getAvailableProducts(this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of(1, 3), result.stream().map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    public void getAvailableProducts_OlderThanMaxAge_Reloaded() throws InterruptedException {
+        ReflectionTestUtils.setField(productCatalogCache, "maxAge", Duration.ofMillis(50));
+        productCatalogCache.getAvailableProducts(this::load);
+
+        // Changed by another instance, no event here
+        catalog = List.of(createDTO(1), createDTO(2));
+        Thread.sleep(100);
+        List<ProductDTO> result = productCatalogCache.getAvailableProducts(this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    public void onProductChange_RemoteSold_PatchesCachedList() {
+        productCatalogCache.getAvailableProducts(this::load);
+
+        productCatalogCache.onProductChange(ProductChangeEvent.remote(ProductChangeEvent.Type.SOLD, List.of(3)));
+        List<ProductDTO> result = productCatalogCache.getAvailableProducts(this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of(1, 2), result.stream().map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    public void getAvailableSnapshot_Unchanged_ReusesEncodingAndMatchesETag() {
+        CatalogSnapshot first = productCatalogCache.getAvailableSnapshot(this::load);
+        CatalogSnapshot second = productCatalogCache.getAvailableSnapshot(this::load);
+
+        assertSame(first, second);
+        assertTrue(second.matches(first.getEtag()));
+        assertTrue(second.matches("W/" + first.getEtag()));
+    }
+
+    @Test
+    public void acceptsGzip_HonoursQValues() {
+        assertTrue(CatalogSnapshot.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CatalogSnapshot.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(CatalogSnapshot.acceptsGzip("*"));
+        assertFalse(CatalogSnapshot.acceptsGzip("gzip;q=0"));
+        assertFalse(CatalogSnapshot.acceptsGzip("gzip; q=0.000, identity"));
+        assertFalse(CatalogSnapshot.acceptsGzip("*, gzip;q=0"));
+        assertFalse(CatalogSnapshot.acceptsGzip("identity"));
+        assertFalse(CatalogSnapshot.acceptsGzip(null));
+    }
+
+    @Test
+    public void getAvailableSnapshot_AfterSale_ChangesETag() {
+        CatalogSnapshot before = productCatalogCache.getAvailableSnapshot(this::load);
+
+        productCatalogCache.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.SOLD, 1));
+        CatalogSnapshot after = productCatalogCache.getAvailableSnapshot(this::load);
+
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertTrue(after.getGzip().length > 0);
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private List<ProductDTO> load() {
+        loads.incrementAndGet();
+        return catalog;
+    }
+
+    private static ProductDTO createDTO(int id) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(id);
+        dto.setTitle("Test Painting " + id);
+        return dto;
+    }
+}
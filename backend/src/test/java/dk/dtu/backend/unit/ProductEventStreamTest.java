@@ -0,0 +1,150 @@
+package dk.dtu.backend.unit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dk.dtu.backend.service.ProductChangeEvent;
+import dk.dtu.backend.service.ProductEventStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ProductEventStreamTest {
+
+    private SimpleMeterRegistry registry;
+    private CountDownLatch release;
+    private CountDownLatch stalled;
+    private List<Set<DataWithMediaType>> delivered;
+    private ProductEventStream stream;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+        stalled = new CountDownLatch(1);
+        delivered = new CopyOnWriteArrayList<>();
+        stream = newStream(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    public void broadcast_StalledSubscriber_DroppedWithoutDelayingOthers() throws InterruptedException {
+        stream.subscribe(null);
+        stream.subscribe(null);
+        await(() -> stream.subscriberCount() == 2);
+
+        // The stalled client's first write is in flight before the rest queue up behind it
+        stream.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, 1));
+        assertTrue(stalled.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 10; i++) {
+            stream.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, i));
+        }
+
+        await(() -> delivered.size() == 10);
+        assertEquals(1, stream.subscriberCount());
+        assertEquals(1.0, registry.get("products.stream.dropped").counter().count());
+    }
+
+    @Test
+    public void broadcast_BacklogWaitingForSender_NotDropped() throws InterruptedException {
+        // One sender thread, held by the stalled client: the fast client's events wait for it
+        stream.shutdown();
+        stream = newStream(1);
+        stream.subscribe(null);
+        stream.subscribe(null);
+        await(() -> stream.subscriberCount() == 2);
+
+        stream.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, 1));
+        assertTrue(stalled.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 10; i++) {
+            stream.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, i));
+        }
+        await(() -> stream.subscriberCount() == 1);
+        release.countDown();
+
+        await(() -> delivered.size() == 10);
+        assertEquals(1, stream.subscriberCount());
+        assertEquals(1.0, registry.get("products.stream.dropped").counter().count());
+    }
+
+    @Test
+    public void subscribe_EventPublishedMeanwhile_StillDelivered() throws InterruptedException {
+        stream.subscribe(null);
+        await(() -> stream.subscriberCount() == 1);
+
+        // Registered while events are being published: every one of them must reach it
+        stream.subscribe(null);
+        for (int i = 1; i <= 5; i++) {
+            stream.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.SOLD, i));
+        }
+
+        await(() -> delivered.size() == 5);
+        assertEquals(5, delivered.size());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    // The first connection never gets its writes through, every later one is fast
+    private ProductEventStream newStream(int senderThreads) {
+        AtomicInteger connections = new AtomicInteger();
+        return new ProductEventStream(new ObjectMapper(), registry, 64, 10,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 4, senderThreads) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                return connections.getAndIncrement() == 0 ? stalledEmitter() : recordingEmitter();
+            }
+        };
+    }
+
+    private SseEmitter stalledEmitter() {
+        return new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                stalled.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("client went away");
+            }
+        };
+    }
+
+    private SseEmitter recordingEmitter() {
+        return new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) {
+                delivered.add(items);
+            }
+        };
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), "condition not met within 5s");
+    }
+}
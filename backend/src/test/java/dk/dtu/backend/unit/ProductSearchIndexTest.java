@@ -0,0 +1,156 @@
+package dk.dtu.backend.unit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.dto.responses.ProductDTO;
+import dk.dtu.backend.dto.responses.SearchResultDTO;
+import dk.dtu.backend.persistence.entity.Artist;
+import dk.dtu.backend.persistence.repository.ArtistRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.persistence.repository.ProductRepository.ProductSearchView;
+import dk.dtu.backend.service.ArtistChangeEvent;
+import dk.dtu.backend.service.LoggingService;
+import dk.dtu.backend.service.ProductChangeEvent;
+import dk.dtu.backend.service.ProductSearchIndex;
+import dk.dtu.backend.service.ProductSearchIndex.SearchFilters;
+
+@ActiveProfiles("test")
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ArtistRepository artistRepository;
+
+    @Mock
+    private LoggingService loggingService;
+
+    @InjectMocks
+    private ProductSearchIndex searchIndex;
+
+    private Artist monet;
+
+    @BeforeEach
+    public void setup() {
+        monet = TestDataFactory.createArtist(TestDataFactory.createUser("monet@example.com", "ARTIST"));
+        monet.setId(10);
+        monet.setFirstName("Claude");
+        monet.setLastName("Monet");
+        monet.setStyle("Impressionism");
+
+        when(productRepository.findSearchViews()).thenReturn(List.of(
+            view(1, "Water Lilies", "DKK", 1906, 10, "Claude", "Monet", "Impressionism"),
+            view(2, "Houses of Parliament", "EUR", 1904, 10, "Claude", "Monet", "Impressionism"),
+            view(3, "Composition VIII", "DKK", 1923, 20, "Wassily", "Kandinsky", "Abstract")));
+        when(artistRepository.findAll()).thenReturn(List.of(monet));
+        searchIndex.warmUp();
+    }
+
+    @Test
+    public void search_ArtistName_FindsTheirProductsNewestFirstWithFacets() {
+        SearchResultDTO result = searchIndex.search("monet", SearchFilters.NONE, 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(2, 1), result.getProducts().stream().map(ProductDTO::getId).toList());
+        assertEquals(10, result.getArtists().get(0).getId());
+        assertEquals(Map.of("Impressionism", 2), result.getFacets().get("style"));
+        assertEquals(Map.of("DKK", 1, "EUR", 1), result.getFacets().get("currency"));
+    }
+
+    @Test
+    public void search_FacetFilterAndLimit_CountsFilteredMatchesOnly() {
+        SearchResultDTO result = searchIndex.search("claude", new SearchFilters(null, "dkk", null), 10);
+        assertEquals(List.of(1), result.getProducts().stream().map(ProductDTO::getId).toList());
+
+        SearchResultDTO limited = searchIndex.search("19", SearchFilters.NONE, 1);
+        assertEquals(3, limited.getTotal());
+        assertEquals(1, limited.getProducts().size());
+    }
+
+    @Test
+    public void onProductChange_Sold_DropsProductFromResults() {
+        searchIndex.onProductChange(ProductChangeEvent.of(ProductChangeEvent.Type.SOLD, 1));
+
+        SearchResultDTO result = searchIndex.search("lilies", SearchFilters.NONE, 10);
+
+        assertEquals(0, result.getTotal());
+        assertEquals(2, searchIndex.productCount());
+    }
+
+    @Test
+    public void onArtistChange_Renamed_ReindexesArtistAndTheirProducts() {
+        monet.setLastName("Monnet");
+        when(artistRepository.findAllById(List.of(10))).thenReturn(List.of(monet));
+        when(productRepository.findSearchViewsByArtistIds(List.of(10))).thenReturn(List.of(
+            view(1, "Water Lilies", "DKK", 1906, 10, "Claude", "Monnet", "Impressionism"),
+            view(2, "Houses of Parliament", "EUR", 1904, 10, "Claude", "Monnet", "Impressionism")));
+
+        searchIndex.onArtistChange(ArtistChangeEvent.of(10));
+
+        assertEquals(0, searchIndex.search("monet", SearchFilters.NONE, 10).getTotal());
+        assertEquals(2, searchIndex.search("monnet", SearchFilters.NONE, 10).getTotal());
+        assertTrue(searchIndex.suggest("water li", 5).contains("lilies"));
+    }
+
+    @Test
+    public void refreshArtists_RenamedElsewhere_ReindexesOnlyThatArtist() {
+        Artist kandinsky = TestDataFactory.createArtist(TestDataFactory.createUser("kandinsky@example.com", "ARTIST"));
+        kandinsky.setId(20);
+        kandinsky.setFirstName("Wassily");
+        kandinsky.setLastName("Kandinsky");
+        monet.setLastName("Monnet");
+        when(artistRepository.findAll()).thenReturn(List.of(monet, kandinsky));
+        when(artistRepository.findAllById(anyCollection())).thenReturn(List.of(monet, kandinsky));
+        when(productRepository.findSearchViewsByArtistIds(anyCollection())).thenReturn(List.of());
+
+        searchIndex.refreshArtists();
+
+        verify(artistRepository).findAllById(List.of(10, 20));
+        assertEquals(1, searchIndex.search("wassily", SearchFilters.NONE, 10).getArtists().size());
+        assertEquals(1, searchIndex.search("monnet", SearchFilters.NONE, 10).getArtists().size());
+
+        // Nothing changed since: no reload
+        searchIndex.refreshArtists();
+        verify(artistRepository).findAllById(anyCollection());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private static ProductSearchView view(Integer id, String title, String currency, Integer year, Integer artistId,
+                                          String firstName, String lastName, String style) {
+        return new ProductSearchView() {
+            public Integer getId() { return id; }
+            public String getTitle() { return title; }
+            public String getImageUrl() { return "https://example.com/" + id + ".jpg"; }
+            public double getSecretPrice() { return 1000.0; }
+            public String getCurrency() { return currency; }
+            public String getDescription() { return "Oil on canvas"; }
+            public Integer getYearCreated() { return year; }
+            public String getProductSize() { return null; }
+            public LocalDate getDateAdded() { return LocalDate.of(2024, 1, id); }
+            public Integer getArtistId() { return artistId; }
+            public String getArtistFirstName() { return firstName; }
+            public String getArtistLastName() { return lastName; }
+            public String getStyle() { return style; }
+            public String getArtistBio() { return null; }
+        };
+    }
+}
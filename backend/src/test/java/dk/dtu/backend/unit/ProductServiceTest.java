@@ -1,25 +1,39 @@
 package dk.dtu.backend.unit;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import dk.dtu.backend.TestDataFactory;
 import dk.dtu.backend.persistence.entity.Artist;
 import dk.dtu.backend.persistence.entity.Product;
 import dk.dtu.backend.persistence.entity.User;
 import dk.dtu.backend.persistence.repository.ProductRepository;
+import dk.dtu.backend.service.BidEngine;
 import dk.dtu.backend.service.LoggingService;
+import dk.dtu.backend.service.ProductAlreadySoldException;
+import dk.dtu.backend.service.ProductCatalogCache;
 import dk.dtu.backend.service.ProductService;
 
 @ActiveProfiles("test")
@@ -32,6 +46,12 @@ public class ProductServiceTest {
     @Mock
     private LoggingService loggingService;
 
+    @Mock
+    private ProductCatalogCache productCatalogCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -42,6 +62,12 @@ public class ProductServiceTest {
 
     @BeforeEach
     public void setup() {
+        // Real engine so bids exercise its database read-through on the mocked repository
+        BidEngine bidEngine = new BidEngine();
+        ReflectionTestUtils.setField(bidEngine, "productRepository", productRepository);
+        ReflectionTestUtils.setField(bidEngine, "loggingService", loggingService);
+        ReflectionTestUtils.setField(productService, "bidEngine", bidEngine);
+
         artistUser = TestDataFactory.createUser("artist@example.com", "ARTIST");
         artist = TestDataFactory.createArtist(artistUser);
         availableProduct = TestDataFactory.createProductWithId(1, artist, 500.0);
@@ -51,6 +77,33 @@ public class ProductServiceTest {
 
     // METHODS USED BY CheckoutController ONLY //
 
+    @Test
+    public void markSold_AllAvailable_Succeeds() {
+        when(productRepository.markSoldIfAvailable(Set.of(1))).thenReturn(1);
+
+        productService.markSold(List.of(1));
+
+        verify(productRepository, never()).findExistingIds(any());
+    }
+
+    @Test
+    public void markSold_ProductAlreadySold_ThrowsConflict() {
+        when(productRepository.markSoldIfAvailable(Set.of(1, 2))).thenReturn(1);
+        when(productRepository.findExistingIds(Set.of(1, 2))).thenReturn(List.of(1, 2));
+
+        assertThrows(ProductAlreadySoldException.class, () -> productService.markSold(List.of(1, 2)));
+    }
+
+    @Test
+    public void markSold_UnknownProduct_ThrowsNotFound() {
+        when(productRepository.markSoldIfAvailable(Set.of(1, 999))).thenReturn(1);
+        when(productRepository.findExistingIds(Set.of(1, 999))).thenReturn(List.of(1));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> productService.markSold(List.of(1, 999)));
+        assertTrue(e.getMessage().contains("999"));
+    }
+
     @Test
     public void getProductById_ExistingProduct_ReturnsProduct() {
         when(productRepository.findById(1)).thenReturn(Optional.of(availableProduct));
@@ -72,7 +125,7 @@ public class ProductServiceTest {
 
     @Test
     public void placeBid_ValidBidAboveSecretPrice_ReturnsTrue() {
-        when(productRepository.findById(1)).thenReturn(Optional.of(availableProduct));
+        when(productRepository.findBidViewById(1)).thenReturn(Optional.of(bidView(availableProduct)));
        
         boolean result = productService.placeBid(1, 600.0);
 
@@ -81,7 +134,7 @@ public class ProductServiceTest {
 
     @Test
     public void placeBid_BidTooLow_ReturnsFalse() {
-        when(productRepository.findById(1)).thenReturn(Optional.of(availableProduct));
+        when(productRepository.findBidViewById(1)).thenReturn(Optional.of(bidView(availableProduct)));
 
         boolean result = productService.placeBid(1, 300.0);
 
@@ -90,7 +143,7 @@ public class ProductServiceTest {
 
     @Test
     public void placeBid_ProductNotFound_ReturnsFalse() {
-        when(productRepository.findById(1)).thenReturn(Optional.empty());
+        when(productRepository.findBidViewById(1)).thenReturn(Optional.empty());
 
         boolean result = productService.placeBid(1, 600.0);
 
@@ -99,10 +152,33 @@ public class ProductServiceTest {
 
     @Test
     public void placeBid_SoldProduct_ReturnsFalse() {
-        when(productRepository.findById(2)).thenReturn(Optional.of(soldProduct));
+        when(productRepository.findBidViewById(2)).thenReturn(Optional.of(bidView(soldProduct)));
 
         boolean result = productService.placeBid(2, 600.0);
 
         assertFalse(result);
     }
+
+    @Test
+    public void product_Json_LeavesOutVersionColumns() {
+        availableProduct.setArtist(null);
+        availableProduct.setVersion(3);
+        availableProduct.setChangeVersion(42);
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(availableProduct);
+
+        assertEquals(1, json.get("id").asInt());
+        assertFalse(json.has("version"));
+        assertFalse(json.has("changeVersion"));
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private static ProductRepository.ProductBidView bidView(Product product) {
+        return new ProductRepository.ProductBidView() {
+            public Integer getId() { return product.getId(); }
+            public double getSecretPrice() { return product.getSecretPrice(); }
+            public boolean isSold() { return product.isSold(); }
+        };
+    }
 }
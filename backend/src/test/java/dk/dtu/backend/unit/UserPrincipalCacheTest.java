@@ -0,0 +1,112 @@
+package dk.dtu.backend.unit;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import dk.dtu.backend.TestDataFactory;
+import dk.dtu.backend.persistence.entity.User;
+import dk.dtu.backend.persistence.repository.UserRepository;
+import dk.dtu.backend.service.UserPrincipalCache;
+import dk.dtu.backend.service.UserPrincipalCache.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry registry;
+    private User customer;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        customer = TestDataFactory.createUser("customer@example.com", "CUSTOMER");
+        customer.setId(3);
+    }
+
+    @Test
+    public void find_DifferentCasingAndWhitespace_SameEntry() {
+        when(userRepository.findByEmail("Customer@Example.com")).thenReturn(Optional.of(customer));
+        UserPrincipalCache cache = cache(Duration.ofSeconds(30), 100);
+
+        UserPrincipal first = cache.find("Customer@Example.com").orElseThrow();
+        UserPrincipal second = cache.find(" customer@example.com ").orElseThrow();
+
+        assertEquals(first, second);
+        assertEquals(3, second.id());
+        assertEquals(1.0, registry.get("auth.principal.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    public void find_NonNormalizedMiss_DoesNotShadowExistingUser() {
+        when(userRepository.findByEmail(" Customer@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("customer@example.com")).thenReturn(Optional.of(customer));
+        UserPrincipalCache cache = cache(Duration.ofSeconds(30), 100);
+
+        assertFalse(cache.find(" Customer@example.com").isPresent());
+        assertFalse(cache.find(" Customer@example.com").isPresent());
+
+        assertEquals(3, cache.find("customer@example.com").orElseThrow().id());
+        verify(userRepository, times(1)).findByEmail(" Customer@example.com");
+    }
+
+    @Test
+    public void find_UnknownEmailAfterNegativeTtl_QueriesAgain() throws InterruptedException {
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+        UserPrincipalCache cache = cache(Duration.ofMillis(50), 100);
+
+        assertFalse(cache.find("ghost@example.com").isPresent());
+        assertFalse(cache.find("ghost@example.com").isPresent());
+        Thread.sleep(100);
+        assertFalse(cache.find("ghost@example.com").isPresent());
+
+        verify(userRepository, times(2)).findByEmail("ghost@example.com");
+        assertEquals(1.0, registry.get("auth.principal.cache").tag("result", "negative_hit").counter().count());
+    }
+
+    @Test
+    public void invalidate_CachedMiss_NextLookupSeesNewUser() {
+        when(userRepository.findByEmail("customer@example.com"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(customer));
+        UserPrincipalCache cache = cache(Duration.ofSeconds(30), 100);
+
+        assertFalse(cache.find("customer@example.com").isPresent());
+        cache.invalidate("customer@example.com");
+
+        assertTrue(cache.find("customer@example.com").isPresent());
+    }
+
+    @Test
+    public void find_ManyDistinctEmails_StaysBounded() {
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        UserPrincipalCache cache = cache(Duration.ofSeconds(30), 100);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.find("stuffing_" + i + "@example.com");
+        }
+
+        assertTrue(cache.size() <= 100, "cache grew to " + cache.size());
+    }
+
+    // ---------------------------- HELPER METHODS ----------------------------
+
+    private UserPrincipalCache cache(Duration negativeTtl, int maxEntries) {
+        return new UserPrincipalCache(userRepository, registry, Duration.ofMinutes(10), negativeTtl, maxEntries);
+    }
+}